@@ -0,0 +1,40 @@
+package com.assignment.commonmodel.codec;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Identifies the layout of a binary Kafka event: which event it is, the layout version, and a fingerprint of the
+ * layout description (the first 8 bytes of its SHA-256). Sent as a 10-byte header, [type][version][fingerprint],
+ * in place of Jackson's class-name type headers.
+ */
+public record EventSchema(int type, int version, long fingerprint) {
+
+    static final int HEADER_SIZE = 10;
+
+    static EventSchema of(int type, int version, String layout) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(layout.getBytes(StandardCharsets.UTF_8));
+            return new EventSchema(type, version, ByteBuffer.wrap(digest, 0, 8).getLong());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public static EventSchema fromHeader(byte[] header) {
+        if (header == null || header.length != HEADER_SIZE)
+            throw new IllegalArgumentException("Malformed event schema header");
+        ByteBuffer buffer = ByteBuffer.wrap(header);
+        return new EventSchema(buffer.get() & 0xFF, buffer.get() & 0xFF, buffer.getLong());
+    }
+
+    public byte[] toHeader() {
+        return ByteBuffer.allocate(HEADER_SIZE)
+                .put((byte) type)
+                .put((byte) version)
+                .putLong(fingerprint)
+                .array();
+    }
+}
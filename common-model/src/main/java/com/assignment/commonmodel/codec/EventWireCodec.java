@@ -0,0 +1,204 @@
+package com.assignment.commonmodel.codec;
+
+import com.assignment.commonmodel.codec.WireFormat.Reader;
+import com.assignment.commonmodel.model.InventoryCheckReason;
+import com.assignment.commonmodel.model.InventoryCheckResultEvent;
+import com.assignment.commonmodel.model.InventoryIssue;
+import com.assignment.commonmodel.model.InventoryStatus;
+import com.assignment.commonmodel.model.OrderEvent;
+import com.assignment.commonmodel.model.OrderItem;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.assignment.commonmodel.codec.OrderEventCodec.categoryCode;
+import static com.assignment.commonmodel.codec.OrderEventCodec.statusCode;
+import static com.assignment.commonmodel.codec.WireFormat.writeSized;
+import static com.assignment.commonmodel.codec.WireFormat.writeString;
+import static com.assignment.commonmodel.codec.WireFormat.writeVarint;
+import static com.assignment.commonmodel.codec.WireFormat.writeZigzag;
+
+/**
+ * Binary form of the events exchanged over Kafka, decoded field by field without reflection. The record value
+ * holds only the fields; which event and layout version it is travels in the {@link #SCHEMA_HEADER} header as an
+ * {@link EventSchema}.
+ *
+ * <pre>
+ * OrderEvent:                [status][orderId][customerName][items]
+ *   item:                    [category][productId][zigzag quantity]
+ * InventoryCheckResultEvent: [status][orderId][issues]
+ *   issue:                   [productId][reason]
+ * </pre>
+ * Strings are encoded as in {@link OrderEventCodec}; lists are a varint of (count + 1), 0 meaning null, and every
+ * element is prefixed with its length.
+ *
+ * <p>Layouts only ever grow at the end, of the event or of an element, and every change gets a new version. A
+ * reader ignores what follows the fields it knows, so older services read newer events, and it reads a field
+ * added after version 1 only if bytes remain, so newer services read older events. A header whose version this
+ * reader knows must carry that version's fingerprint; a mismatch means two builds disagree on a layout and the
+ * record is rejected rather than misread. Enum codes are append-only like the fields: an unknown category decodes
+ * as {@code UNKNOWN}, and an unknown status or issue reason as null.
+ */
+public class EventWireCodec {
+
+    public static final String SCHEMA_HEADER = "event-schema";
+
+    public static final EventSchema ORDER_EVENT = EventSchema.of(1, 1,
+            "OrderEvent/1{status:enum8(APPROVED=1,REJECTED=2,PENDING=3);orderId:string;customerName:string;"
+                    + "items:list<sized{category:enum8(STANDARD=1,PERISHABLE=2,DIGITAL=3,UNKNOWN=4);"
+                    + "productId:string;quantity:zigzag}>}");
+
+    public static final EventSchema INVENTORY_CHECK_RESULT = EventSchema.of(2, 1,
+            "InventoryCheckResultEvent/1{status:enum8(APPROVED=1,REJECTED=2,PENDING=3);orderId:string;"
+                    + "issues:list<sized{productId:string;reason:enum8(UNKNOWN_PRODUCT=1,UNKNOWN_CATEGORY=2,"
+                    + "INSUFFICIENT_QUANTITY=3,EXPIRED=4,EMPTY_ORDER=5)}>}");
+
+    // every version ever written, so that fingerprints of older versions keep being checked
+    private static final List<EventSchema> KNOWN_SCHEMAS = List.of(ORDER_EVENT, INVENTORY_CHECK_RESULT);
+
+    /**
+     * The schema {@code event} is written with, or null when it has no binary form.
+     */
+    public EventSchema schemaOf(Object event) {
+        if (event instanceof OrderEvent)
+            return ORDER_EVENT;
+        if (event instanceof InventoryCheckResultEvent)
+            return INVENTORY_CHECK_RESULT;
+        return null;
+    }
+
+    public byte[] encode(Object event) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(128);
+        if (event instanceof OrderEvent order)
+            writeOrder(out, order);
+        else if (event instanceof InventoryCheckResultEvent result)
+            writeResult(out, result);
+        else
+            throw new IllegalArgumentException("No binary form for " + event.getClass().getName());
+        return out.toByteArray();
+    }
+
+    public Object decode(byte[] schemaHeader, byte[] value) {
+        EventSchema written = EventSchema.fromHeader(schemaHeader);
+        for (EventSchema known : KNOWN_SCHEMAS) {
+            if (known.type() == written.type() && known.version() == written.version()
+                    && known.fingerprint() != written.fingerprint())
+                throw new IllegalArgumentException("Event schema " + written.type() + "/" + written.version()
+                        + " has fingerprint " + Long.toHexString(written.fingerprint()) + ", expected "
+                        + Long.toHexString(known.fingerprint()));
+        }
+
+        Reader in = new Reader(value, 0);
+        return switch (written.type()) {
+            case 1 -> readOrder(in);
+            case 2 -> readResult(in);
+            default -> throw new IllegalArgumentException("Unknown event type " + written.type());
+        };
+    }
+
+    private static void writeOrder(ByteArrayOutputStream out, OrderEvent order) {
+        out.write(statusCode(order.getStatus()));
+        writeString(out, order.getOrderId());
+        writeString(out, order.getCustomerName());
+        List<OrderItem> items = order.getItems();
+        if (items == null) {
+            writeVarint(out, 0);
+            return;
+        }
+        writeVarint(out, items.size() + 1);
+        ByteArrayOutputStream element = new ByteArrayOutputStream(32);
+        for (OrderItem item : items) {
+            element.reset();
+            element.write(categoryCode(item.getCategory()));
+            writeString(element, item.getProductId());
+            writeZigzag(element, item.getQuantity());
+            writeSized(out, element);
+        }
+    }
+
+    private static OrderEvent readOrder(Reader in) {
+        OrderEvent order = new OrderEvent();
+        order.setStatus(status(in.readByte()));
+        order.setOrderId(in.string());
+        order.setCustomerName(in.string());
+        int count = in.varint() - 1;
+        if (count >= 0) {
+            List<OrderItem> items = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                Reader item = in.slice();
+                items.add(new OrderItem(OrderEventCodec.category(item.readByte()), item.string(), item.zigzag()));
+            }
+            order.setItems(items);
+        }
+        return order;
+    }
+
+    private static void writeResult(ByteArrayOutputStream out, InventoryCheckResultEvent result) {
+        out.write(statusCode(result.getStatus()));
+        writeString(out, result.getOrderId());
+        List<InventoryIssue> issues = result.getIssues();
+        if (issues == null) {
+            writeVarint(out, 0);
+            return;
+        }
+        writeVarint(out, issues.size() + 1);
+        ByteArrayOutputStream element = new ByteArrayOutputStream(32);
+        for (InventoryIssue issue : issues) {
+            element.reset();
+            writeString(element, issue.productId());
+            element.write(reasonCode(issue.reason()));
+            writeSized(out, element);
+        }
+    }
+
+    private static InventoryCheckResultEvent readResult(Reader in) {
+        InventoryCheckResultEvent result = new InventoryCheckResultEvent();
+        InventoryStatus status = status(in.readByte());
+        if (status != null) // the setter rejects null; consumers skip a result whose status stays unset
+            result.setStatus(status);
+        result.setOrderId(in.string());
+        int count = in.varint() - 1;
+        if (count >= 0) {
+            List<InventoryIssue> issues = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                Reader issue = in.slice();
+                issues.add(new InventoryIssue(issue.string(), reason(issue.readByte())));
+            }
+            result.setIssues(issues);
+        }
+        return result;
+    }
+
+    private static InventoryStatus status(byte code) {
+        return switch (code) {
+            case 1 -> InventoryStatus.APPROVED;
+            case 2 -> InventoryStatus.REJECTED;
+            case 3 -> InventoryStatus.PENDING;
+            default -> null;
+        };
+    }
+
+    private static byte reasonCode(InventoryCheckReason reason) {
+        if (reason == null)
+            return 0;
+        return switch (reason) {
+            case UNKNOWN_PRODUCT -> 1;
+            case UNKNOWN_CATEGORY -> 2;
+            case INSUFFICIENT_QUANTITY -> 3;
+            case EXPIRED -> 4;
+            case EMPTY_ORDER -> 5;
+        };
+    }
+
+    private static InventoryCheckReason reason(byte code) {
+        return switch (code) {
+            case 1 -> InventoryCheckReason.UNKNOWN_PRODUCT;
+            case 2 -> InventoryCheckReason.UNKNOWN_CATEGORY;
+            case 3 -> InventoryCheckReason.INSUFFICIENT_QUANTITY;
+            case 4 -> InventoryCheckReason.EXPIRED;
+            case 5 -> InventoryCheckReason.EMPTY_ORDER;
+            default -> null;
+        };
+    }
+}
@@ -0,0 +1,201 @@
+package com.assignment.commonmodel.codec;
+
+import com.assignment.commonmodel.codec.WireFormat.Reader;
+import com.assignment.commonmodel.model.Category;
+import com.assignment.commonmodel.model.InventoryStatus;
+import com.assignment.commonmodel.model.OrderEvent;
+import com.assignment.commonmodel.model.OrderItem;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import static com.assignment.commonmodel.codec.WireFormat.writeString;
+import static com.assignment.commonmodel.codec.WireFormat.writeVarint;
+import static com.assignment.commonmodel.codec.WireFormat.writeZigzag;
+
+/**
+ * Compact binary form of {@link OrderEvent} for Redis values.
+ *
+ * <pre>
+ * [0xB1 magic][version][status][flags][orderId][customerName][items]
+ * </pre>
+ * Strings are a varint of (UTF-8 length + 1), 0 meaning null. Items are a varint of (count + 1) followed by
+ * [category][productId][zigzag varint quantity] per item. When the items block is at least
+ * {@code compressionThreshold} bytes and deflate makes it smaller, it is stored as [varint raw length][deflated bytes]
+ * and {@link #FLAG_COMPRESSED} is set.
+ *
+ * <p>The status is always the byte at {@link #STATUS_OFFSET}, so a status change is a single SETRANGE.
+ * Status and category codes are part of the format: never renumber them, only add new ones.
+ */
+public class OrderEventCodec {
+
+    public static final byte MAGIC = (byte) 0xB1;
+    public static final byte VERSION = 1;
+    public static final int STATUS_OFFSET = 2;
+    public static final int FLAG_COMPRESSED = 1;
+    private static final int HEADER_SIZE = 4;
+
+    private final int compressionThreshold;
+
+    public OrderEventCodec(int compressionThreshold) {
+        this.compressionThreshold = compressionThreshold;
+    }
+
+    public static boolean isEncoded(byte[] bytes) {
+        return bytes != null && bytes.length >= HEADER_SIZE && bytes[0] == MAGIC;
+    }
+
+    public static byte statusCode(InventoryStatus status) {
+        if (status == null)
+            return 0;
+        return switch (status) {
+            case APPROVED -> 1;
+            case REJECTED -> 2;
+            case PENDING -> 3;
+        };
+    }
+
+    public byte[] encode(OrderEvent order) {
+        ByteArrayOutputStream items = new ByteArrayOutputStream();
+        writeItems(items, order.getItems());
+
+        int flags = 0;
+        byte[] itemBytes = items.toByteArray();
+        byte[] storedItems = itemBytes;
+        if (itemBytes.length >= compressionThreshold) {
+            byte[] compressed = deflate(itemBytes);
+            if (compressed.length + 5 < itemBytes.length) {
+                ByteArrayOutputStream block = new ByteArrayOutputStream(compressed.length + 5);
+                writeVarint(block, itemBytes.length);
+                block.write(compressed, 0, compressed.length);
+                storedItems = block.toByteArray();
+                flags |= FLAG_COMPRESSED;
+            }
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(HEADER_SIZE + 64 + storedItems.length);
+        out.write(MAGIC);
+        out.write(VERSION);
+        out.write(statusCode(order.getStatus()));
+        out.write(flags);
+        writeString(out, order.getOrderId());
+        writeString(out, order.getCustomerName());
+        out.write(storedItems, 0, storedItems.length);
+        return out.toByteArray();
+    }
+
+    public OrderEvent decode(byte[] bytes) {
+        if (!isEncoded(bytes))
+            throw new IllegalArgumentException("Not an encoded order");
+        if (bytes[1] > VERSION)
+            throw new IllegalArgumentException("Unsupported order encoding version " + bytes[1]);
+
+        Reader in = new Reader(bytes, HEADER_SIZE);
+        OrderEvent order = new OrderEvent();
+        order.setStatus(status(bytes[STATUS_OFFSET]));
+        order.setOrderId(in.string());
+        order.setCustomerName(in.string());
+
+        Reader items = in;
+        if ((bytes[3] & FLAG_COMPRESSED) != 0) {
+            int rawLength = in.varint();
+            items = new Reader(inflate(bytes, in.position, bytes.length - in.position, rawLength), 0);
+        }
+        order.setItems(readItems(items));
+        return order;
+    }
+
+    private static void writeItems(ByteArrayOutputStream out, List<OrderItem> items) {
+        if (items == null) {
+            writeVarint(out, 0);
+            return;
+        }
+        writeVarint(out, items.size() + 1);
+        for (OrderItem item : items) {
+            out.write(categoryCode(item.getCategory()));
+            writeString(out, item.getProductId());
+            writeZigzag(out, item.getQuantity());
+        }
+    }
+
+    private static List<OrderItem> readItems(Reader in) {
+        int count = in.varint() - 1;
+        if (count < 0)
+            return null;
+        List<OrderItem> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Category category = category(in.readByte());
+            String productId = in.string();
+            items.add(new OrderItem(category, productId, in.zigzag()));
+        }
+        return items;
+    }
+
+    static byte categoryCode(Category category) {
+        if (category == null)
+            return 0;
+        return switch (category) {
+            case STANDARD -> 1;
+            case PERISHABLE -> 2;
+            case DIGITAL -> 3;
+            case UNKNOWN -> 4;
+        };
+    }
+
+    static Category category(byte code) {
+        return switch (code) {
+            case 0 -> null;
+            case 1 -> Category.STANDARD;
+            case 2 -> Category.PERISHABLE;
+            case 3 -> Category.DIGITAL;
+            default -> Category.UNKNOWN;
+        };
+    }
+
+    static InventoryStatus status(byte code) {
+        return switch (code) {
+            case 0 -> null;
+            case 1 -> InventoryStatus.APPROVED;
+            case 2 -> InventoryStatus.REJECTED;
+            case 3 -> InventoryStatus.PENDING;
+            default -> throw new IllegalArgumentException("Unknown order status code " + code);
+        };
+    }
+
+    private static byte[] deflate(byte[] raw) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(raw.length / 2);
+            byte[] buffer = new byte[Math.max(64, raw.length / 2)];
+            while (!deflater.finished()) {
+                int written = deflater.deflate(buffer);
+                out.write(buffer, 0, written);
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] bytes, int offset, int length, int rawLength) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(bytes, offset, length);
+            byte[] raw = new byte[rawLength];
+            int read = inflater.inflate(raw);
+            if (read != rawLength)
+                throw new IllegalArgumentException("Truncated compressed order items");
+            return raw;
+        } catch (DataFormatException e) {
+            throw new IllegalArgumentException("Corrupt compressed order items", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
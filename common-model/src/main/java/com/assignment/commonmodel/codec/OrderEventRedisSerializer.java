@@ -0,0 +1,43 @@
+package com.assignment.commonmodel.codec;
+
+import com.assignment.commonmodel.model.OrderEvent;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+/**
+ * Redis value serializer that stores {@link OrderEvent} with {@link OrderEventCodec} and everything else as JSON.
+ * Reads accept both forms, so orders written as JSON before the binary codec stay readable, and
+ * {@code writeBinary=false} keeps writing JSON while older readers are still deployed.
+ */
+public class OrderEventRedisSerializer implements RedisSerializer<Object> {
+
+    private final OrderEventCodec codec;
+    private final RedisSerializer<Object> json = new GenericJackson2JsonRedisSerializer();
+    private final boolean writeBinary;
+
+    public OrderEventRedisSerializer(boolean writeBinary, int compressionThreshold) {
+        this.writeBinary = writeBinary;
+        this.codec = new OrderEventCodec(compressionThreshold);
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (writeBinary && value instanceof OrderEvent order)
+            return codec.encode(order);
+        return json.serialize(value);
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0)
+            return null;
+        if (!OrderEventCodec.isEncoded(bytes))
+            return json.deserialize(bytes);
+        try {
+            return codec.decode(bytes);
+        } catch (RuntimeException e) {
+            throw new SerializationException("Could not decode order", e);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.assignment.commonmodel.codec;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Varint and string primitives shared by the binary codecs. Strings are a varint of (UTF-8 length + 1), 0 meaning
+ * null; signed ints are zigzag varints.
+ */
+final class WireFormat {
+
+    private WireFormat() {
+    }
+
+    static void writeVarint(ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    static void writeZigzag(ByteArrayOutputStream out, int value) {
+        writeVarint(out, (value << 1) ^ (value >> 31));
+    }
+
+    static void writeString(ByteArrayOutputStream out, String value) {
+        if (value == null) {
+            writeVarint(out, 0);
+            return;
+        }
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        writeVarint(out, utf8.length + 1);
+        out.write(utf8, 0, utf8.length);
+    }
+
+    static void writeSized(ByteArrayOutputStream out, ByteArrayOutputStream value) {
+        writeVarint(out, value.size());
+        out.write(value.toByteArray(), 0, value.size());
+    }
+
+    static final class Reader {
+        final byte[] bytes;
+        int position;
+        int limit;
+
+        Reader(byte[] bytes, int position) {
+            this(bytes, position, bytes.length);
+        }
+
+        Reader(byte[] bytes, int position, int limit) {
+            this.bytes = bytes;
+            this.position = position;
+            this.limit = limit;
+        }
+
+        boolean hasRemaining() {
+            return position < limit;
+        }
+
+        byte readByte() {
+            if (position >= limit)
+                throw new IllegalArgumentException("Truncated value");
+            return bytes[position++];
+        }
+
+        int varint() {
+            int value = 0;
+            for (int shift = 0; shift < 35; shift += 7) {
+                byte b = readByte();
+                value |= (b & 0x7F) << shift;
+                if (b >= 0)
+                    return value;
+            }
+            throw new IllegalArgumentException("Malformed varint");
+        }
+
+        int zigzag() {
+            int zigzag = varint();
+            return (zigzag >>> 1) ^ -(zigzag & 1);
+        }
+
+        /**
+         * Reads a varint length and returns a reader over the next that many bytes, skipping this one past them;
+         * whatever the slice's reader leaves unread is ignored.
+         */
+        Reader slice() {
+            int length = varint();
+            if (length > limit - position)
+                throw new IllegalArgumentException("Truncated value");
+            Reader slice = new Reader(bytes, position, position + length);
+            position += length;
+            return slice;
+        }
+
+        String string() {
+            int length = varint() - 1;
+            if (length < 0)
+                return null;
+            if (length > limit - position)
+                throw new IllegalArgumentException("Truncated string");
+            String value = new String(bytes, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+    }
+}
@@ -3,4 +3,5 @@ package com.assignment.commonmodel.constants;
 public class Constants {
     public static final String ORDER="order";
     public static final String ORDER_PREFIX =  "order:";
+    public static final String IDEMPOTENCY_PREFIX = "idempotency:";
 }
@@ -2,4 +2,6 @@ package com.assignment.commonmodel.constants;
 
 public class Messages {
     public static final String CREATED_ORDERS = "Order created";
+    public static final String FAILED_ORDER = "Order failed";
+    public static final String FOUND_ORDER = "Order found";
 }
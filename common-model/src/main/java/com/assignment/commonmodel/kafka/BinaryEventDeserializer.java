@@ -0,0 +1,51 @@
+package com.assignment.commonmodel.kafka;
+
+import com.assignment.commonmodel.codec.EventWireCodec;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+
+import java.util.Map;
+
+/**
+ * Reads records carrying an {@value EventWireCodec#SCHEMA_HEADER} header with {@link EventWireCodec} and all others,
+ * such as those written before the binary format or with {@link BinaryEventSerializer#WRITE_BINARY}=false, with a
+ * {@link JsonDeserializer} configured from the same consumer properties (spring.json.*). Meant as the delegate of an
+ * ErrorHandlingDeserializer, so a record that cannot be decoded reaches the container's error handler.
+ */
+public class BinaryEventDeserializer implements Deserializer<Object> {
+
+    private final EventWireCodec codec = new EventWireCodec();
+    private final JsonDeserializer<Object> json = new JsonDeserializer<>();
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        json.configure(configs, isKey);
+    }
+
+    @Override
+    public Object deserialize(String topic, byte[] data) {
+        return json.deserialize(topic, data);
+    }
+
+    @Override
+    public Object deserialize(String topic, Headers headers, byte[] data) {
+        Header schema = headers.lastHeader(EventWireCodec.SCHEMA_HEADER);
+        if (schema == null)
+            return json.deserialize(topic, headers, data);
+        if (data == null)
+            return null;
+        try {
+            return codec.decode(schema.value(), data);
+        } catch (RuntimeException e) {
+            throw new SerializationException("Could not decode event from " + topic, e);
+        }
+    }
+
+    @Override
+    public void close() {
+        json.close();
+    }
+}
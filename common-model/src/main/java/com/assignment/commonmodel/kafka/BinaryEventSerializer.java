@@ -0,0 +1,53 @@
+package com.assignment.commonmodel.kafka;
+
+import com.assignment.commonmodel.codec.EventSchema;
+import com.assignment.commonmodel.codec.EventWireCodec;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Serializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.util.Map;
+
+/**
+ * Writes {@link EventWireCodec} events in their binary form with an {@value EventWireCodec#SCHEMA_HEADER} header,
+ * and anything else through a {@link JsonSerializer} configured from the same producer properties.
+ * {@value #WRITE_BINARY}=false writes JSON for every value, for as long as consumers that only read JSON are
+ * still deployed.
+ */
+public class BinaryEventSerializer implements Serializer<Object> {
+
+    public static final String WRITE_BINARY = "events.write.binary";
+
+    private final EventWireCodec codec = new EventWireCodec();
+    private final JsonSerializer<Object> json = new JsonSerializer<>();
+    private boolean writeBinary = true;
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        Object binary = configs.get(WRITE_BINARY);
+        if (binary != null)
+            writeBinary = Boolean.parseBoolean(binary.toString());
+        json.configure(configs, isKey);
+    }
+
+    @Override
+    public byte[] serialize(String topic, Object data) {
+        // no headers to carry the schema, so only JSON can be read back
+        return json.serialize(topic, data);
+    }
+
+    @Override
+    public byte[] serialize(String topic, Headers headers, Object data) {
+        EventSchema schema = writeBinary && data != null ? codec.schemaOf(data) : null;
+        if (schema == null)
+            return json.serialize(topic, headers, data);
+        headers.remove(EventWireCodec.SCHEMA_HEADER);
+        headers.add(EventWireCodec.SCHEMA_HEADER, schema.toHeader());
+        return codec.encode(data);
+    }
+
+    @Override
+    public void close() {
+        json.close();
+    }
+}
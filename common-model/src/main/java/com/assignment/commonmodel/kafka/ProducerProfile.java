@@ -0,0 +1,53 @@
+package com.assignment.commonmodel.kafka;
+
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Named Kafka producer tunings, selected with {@code app.kafka.producerProfile}. Each one sets batching, linger,
+ * compression and buffer memory together, since they only make sense as a set: a long linger without a bigger
+ * batch caps at the batch size, and compression pays off only once batches hold more than a few records.
+ * Durability settings (acks, idempotence, retries) are not part of a profile and stay in application.yml.
+ *
+ * <ul>
+ *     <li>{@link #LOW_LATENCY}: send as soon as the sender thread is free; the Kafka client defaults</li>
+ *     <li>{@link #BALANCED}: a few ms of linger and lz4, for steady traffic</li>
+ *     <li>{@link #MAX_THROUGHPUT}: large, zstd-compressed batches for bulk loads and replays</li>
+ * </ul>
+ */
+public enum ProducerProfile {
+
+    LOW_LATENCY(0, 16 * 1024, "none", 32L * 1024 * 1024),
+    BALANCED(5, 64 * 1024, "lz4", 64L * 1024 * 1024),
+    MAX_THROUGHPUT(25, 256 * 1024, "zstd", 128L * 1024 * 1024);
+
+    private final int lingerMs;
+    private final int batchSize;
+    private final String compressionType;
+    private final long bufferMemory;
+
+    ProducerProfile(int lingerMs, int batchSize, String compressionType, long bufferMemory) {
+        this.lingerMs = lingerMs;
+        this.batchSize = batchSize;
+        this.compressionType = compressionType;
+        this.bufferMemory = bufferMemory;
+    }
+
+    /**
+     * Accepts the enum name or its kebab-case form, e.g. {@code max-throughput}.
+     */
+    public static ProducerProfile from(String name) {
+        return valueOf(name.trim().replace('-', '_').toUpperCase(Locale.ROOT));
+    }
+
+    /**
+     * Producer config entries, keyed like {@code ProducerConfig}.
+     */
+    public Map<String, Object> properties() {
+        return Map.of(
+                "linger.ms", lingerMs,
+                "batch.size", batchSize,
+                "compression.type", compressionType,
+                "buffer.memory", bufferMemory);
+    }
+}
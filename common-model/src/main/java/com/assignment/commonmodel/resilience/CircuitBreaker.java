@@ -0,0 +1,142 @@
+package com.assignment.commonmodel.resilience;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Health state of a backend shared by all of its callers.
+ *
+ * <p>CLOSED: calls go through and {@code failureThreshold} consecutive failures open the breaker.
+ * OPEN: calls are refused without touching the backend until {@code openDuration} passed.
+ * HALF_OPEN: exactly one caller is let through as a probe; its result closes or re-opens the breaker.
+ * A probe that never reports back is replaced after another {@code openDuration}.
+ * Callers take a {@link Permit} with {@link #tryAcquire()} before the call and report the outcome on it. Only the
+ * permit of the current probe moves the breaker out of OPEN/HALF_OPEN: a late result of a call let in before the
+ * breaker opened is ignored, so it cannot close the breaker while the backend is still down. Every permit must end
+ * in exactly one report; a call that tells nothing about the backend (cancelled, or failed on our side) releases it,
+ * which lets the next caller probe right away instead of waiting for the lost probe to be replaced.
+ */
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private record Snapshot(State state, long until) {
+    }
+
+    private static final Logger logger = LoggerFactory.getLogger(CircuitBreaker.class);
+
+    private final String name;
+    private final int failureThreshold;
+    private final long openNanos;
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>(new Snapshot(State.CLOSED, 0));
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final List<Runnable> closeListeners = new CopyOnWriteArrayList<>();
+
+    public CircuitBreaker(String name, int failureThreshold, Duration openDuration) {
+        this.name = name;
+        this.failureThreshold = failureThreshold;
+        this.openNanos = openDuration.toNanos();
+    }
+
+    /**
+     * Returns the permit to report the call's outcome on, or null when the call should not be made.
+     */
+    public Permit tryAcquire() {
+        Snapshot current = snapshot.get();
+        if (current.state() == State.CLOSED)
+            return new Permit(null);
+        if (System.nanoTime() - current.until() < 0)
+            return null;
+        // OPEN that waited long enough, or a HALF_OPEN probe that was lost: let one caller probe
+        Snapshot probe = new Snapshot(State.HALF_OPEN, System.nanoTime() + openNanos);
+        if (!snapshot.compareAndSet(current, probe))
+            return null;
+        logger.info("{} circuit half-open, probing", name);
+        return new Permit(probe);
+    }
+
+    /**
+     * Runs on the thread that reported the closing success, so listeners should hand off long work.
+     */
+    public void onClose(Runnable listener) {
+        closeListeners.add(listener);
+    }
+
+    public State state() {
+        return snapshot.get().state();
+    }
+
+    public String name() {
+        return name;
+    }
+
+    private void succeeded(Snapshot probe) {
+        if (probe == null) {
+            if (snapshot.get().state() == State.CLOSED)
+                consecutiveFailures.set(0);
+            return;
+        }
+        if (snapshot.compareAndSet(probe, new Snapshot(State.CLOSED, 0))) {
+            consecutiveFailures.set(0);
+            logger.info("{} circuit closed", name);
+            closeListeners.forEach(Runnable::run);
+        }
+    }
+
+    private void failed(Snapshot probe) {
+        if (probe != null) {
+            if (snapshot.compareAndSet(probe, new Snapshot(State.OPEN, System.nanoTime() + openNanos)))
+                logger.warn("{} circuit still unavailable, failing fast for {} ms", name, openNanos / 1_000_000);
+            return;
+        }
+        Snapshot current = snapshot.get();
+        if (current.state() != State.CLOSED || consecutiveFailures.incrementAndGet() < failureThreshold)
+            return;
+        if (snapshot.compareAndSet(current, new Snapshot(State.OPEN, System.nanoTime() + openNanos)))
+            logger.warn("{} circuit open, failing fast for {} ms", name, openNanos / 1_000_000);
+    }
+
+    private void released(Snapshot probe) {
+        if (probe != null && snapshot.compareAndSet(probe, new Snapshot(State.OPEN, System.nanoTime())))
+            logger.debug("{} circuit probe released without a result", name);
+    }
+
+    /**
+     * One call let through by the breaker; only the first report counts, so {@link #release()} can run on every
+     * exit after the outcome was reported.
+     */
+    public final class Permit {
+        // the HALF_OPEN snapshot this permit probes, null for a call let in while CLOSED
+        private final Snapshot probe;
+        private final AtomicBoolean reported = new AtomicBoolean();
+
+        private Permit(Snapshot probe) {
+            this.probe = probe;
+        }
+
+        public void onSuccess() {
+            if (reported.compareAndSet(false, true))
+                succeeded(probe);
+        }
+
+        public void onFailure() {
+            if (reported.compareAndSet(false, true))
+                failed(probe);
+        }
+
+        /**
+         * Ends the call without a verdict on the backend.
+         */
+        public void release() {
+            if (reported.compareAndSet(false, true))
+                released(probe);
+        }
+    }
+}
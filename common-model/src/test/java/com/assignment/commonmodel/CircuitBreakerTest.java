@@ -0,0 +1,120 @@
+package com.assignment.commonmodel;
+
+import com.assignment.commonmodel.resilience.CircuitBreaker;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CircuitBreakerTest {
+
+    private static final Duration OPEN_DURATION = Duration.ofMillis(50);
+
+    private final CircuitBreaker breaker = new CircuitBreaker("redis", 2, OPEN_DURATION);
+    private final AtomicInteger closed = new AtomicInteger();
+
+    private void open() {
+        breaker.tryAcquire().onFailure();
+        breaker.tryAcquire().onFailure();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+    }
+
+    private static void waitOpenDuration() throws InterruptedException {
+        Thread.sleep(OPEN_DURATION.toMillis() + 10);
+    }
+
+    @Test
+    void consecutiveFailures_openTheBreaker_andASuccessInBetweenResetsThem() {
+        breaker.tryAcquire().onFailure();
+        breaker.tryAcquire().onSuccess();
+        breaker.tryAcquire().onFailure();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+
+        breaker.tryAcquire().onFailure();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+        assertNull(breaker.tryAcquire());
+    }
+
+    @Test
+    void afterOpenDuration_oneProbeIsLetThrough_andItsSuccessCloses() throws InterruptedException {
+        breaker.onClose(closed::incrementAndGet);
+        open();
+        waitOpenDuration();
+
+        CircuitBreaker.Permit probe = breaker.tryAcquire();
+        assertNotNull(probe);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.state());
+        assertNull(breaker.tryAcquire());
+
+        probe.onSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+        assertEquals(1, closed.get());
+        assertNotNull(breaker.tryAcquire());
+    }
+
+    @Test
+    void probeFailure_reopens() throws InterruptedException {
+        open();
+        waitOpenDuration();
+
+        breaker.tryAcquire().onFailure();
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+        assertNull(breaker.tryAcquire());
+    }
+
+    @Test
+    void lateSuccessOfACallLetInWhileClosed_doesNotClose() throws InterruptedException {
+        breaker.onClose(closed::incrementAndGet);
+        CircuitBreaker.Permit slowCall = breaker.tryAcquire();
+        open();
+
+        slowCall.onSuccess();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+
+        waitOpenDuration();
+        CircuitBreaker.Permit probe = breaker.tryAcquire();
+        slowCall.onSuccess();
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.state());
+        assertEquals(0, closed.get());
+
+        probe.onSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+        assertEquals(1, closed.get());
+    }
+
+    @Test
+    void lostProbe_isReplaced_andItsLateResultIgnored() throws InterruptedException {
+        open();
+        waitOpenDuration();
+        CircuitBreaker.Permit lost = breaker.tryAcquire();
+
+        waitOpenDuration();
+        CircuitBreaker.Permit replacement = breaker.tryAcquire();
+        assertNotNull(replacement);
+
+        lost.onSuccess();
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.state());
+        replacement.onFailure();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+    }
+
+    @Test
+    void releasedProbe_letsTheNextCallerProbeRightAway() throws InterruptedException {
+        open();
+        waitOpenDuration();
+
+        CircuitBreaker.Permit probe = breaker.tryAcquire();
+        probe.release();
+        probe.onSuccess();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+
+        CircuitBreaker.Permit next = breaker.tryAcquire();
+        assertNotNull(next);
+        next.onSuccess();
+        next.release();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+    }
+}
@@ -0,0 +1,227 @@
+package com.assignment.commonmodel;
+
+import com.assignment.commonmodel.codec.EventSchema;
+import com.assignment.commonmodel.codec.EventWireCodec;
+import com.assignment.commonmodel.kafka.BinaryEventDeserializer;
+import com.assignment.commonmodel.kafka.BinaryEventSerializer;
+import com.assignment.commonmodel.model.Category;
+import com.assignment.commonmodel.model.InventoryCheckReason;
+import com.assignment.commonmodel.model.InventoryCheckResultEvent;
+import com.assignment.commonmodel.model.InventoryIssue;
+import com.assignment.commonmodel.model.InventoryStatus;
+import com.assignment.commonmodel.model.OrderEvent;
+import com.assignment.commonmodel.model.OrderItem;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.kafka.support.mapping.AbstractJavaTypeMapper;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventWireCodecTest {
+
+    private static final Map<String, Object> CONFIG = Map.of(
+            JsonSerializer.ADD_TYPE_INFO_HEADERS, true,
+            JsonDeserializer.USE_TYPE_INFO_HEADERS, true,
+            JsonDeserializer.TRUSTED_PACKAGES, "com.assignment.commonmodel.model");
+
+    private final EventWireCodec codec = new EventWireCodec();
+
+    @Test
+    void serializer_writesSchemaHeader_insteadOfClassNames_andRoundTripsBothEvents() {
+        BinaryEventSerializer serializer = serializer(CONFIG);
+        BinaryEventDeserializer deserializer = deserializer();
+        OrderEvent order = new OrderEvent("0SQ4B3H2M07ZK", "Daniel", List.of(
+                new OrderItem(Category.STANDARD, "P1001", 2),
+                new OrderItem(Category.PERISHABLE, "P1002", 1)), InventoryStatus.PENDING);
+        InventoryCheckResultEvent result = new InventoryCheckResultEvent("0SQ4B3H2M07ZK", InventoryStatus.REJECTED,
+                List.of(new InventoryIssue("P1002", InventoryCheckReason.EXPIRED)));
+
+        for (Object event : List.of(order, result)) {
+            Headers headers = new RecordHeaders();
+            byte[] bytes = serializer.serialize("topic", headers, event);
+
+            assertNull(headers.lastHeader(AbstractJavaTypeMapper.DEFAULT_CLASSID_FIELD_NAME));
+            assertEquals(codec.schemaOf(event),
+                    EventSchema.fromHeader(headers.lastHeader(EventWireCodec.SCHEMA_HEADER).value()));
+            assertEquals(event, deserializer.deserialize("topic", headers, bytes));
+        }
+    }
+
+    @Test
+    void codec_nullsAndUnicode_roundTrip() {
+        OrderEvent order = new OrderEvent("id-1", null, null, null);
+        assertEquals(order, decode(order));
+
+        OrderEvent unicode = new OrderEvent("id-2", "דניאל", List.of(new OrderItem(null, "מוצר", -3)), InventoryStatus.APPROVED);
+        assertEquals(unicode, decode(unicode));
+
+        InventoryCheckResultEvent noIssues = new InventoryCheckResultEvent("id-3", InventoryStatus.APPROVED, null);
+        assertEquals(noIssues, decode(noIssues));
+    }
+
+    @Test
+    void deserializer_readsJsonRecords_andSerializerWritesJsonWhenBinaryIsOff() {
+        OrderEvent order = new OrderEvent("id-4", "Daniel", List.of(new OrderItem(Category.DIGITAL, "P1003", 1)), InventoryStatus.PENDING);
+        JsonSerializer<Object> json = new JsonSerializer<>();
+        json.configure(CONFIG, false);
+        Headers jsonHeaders = new RecordHeaders();
+        byte[] jsonBytes = json.serialize("topic", jsonHeaders, order);
+
+        assertEquals(order, deserializer().deserialize("topic", jsonHeaders, jsonBytes));
+
+        Map<String, Object> jsonOnly = new HashMap<>(CONFIG);
+        jsonOnly.put(BinaryEventSerializer.WRITE_BINARY, "false");
+        Headers headers = new RecordHeaders();
+        byte[] bytes = serializer(jsonOnly).serialize("topic", headers, order);
+
+        assertArrayEquals(jsonBytes, bytes);
+        assertNull(headers.lastHeader(EventWireCodec.SCHEMA_HEADER));
+        assertNotNull(headers.lastHeader(AbstractJavaTypeMapper.DEFAULT_CLASSID_FIELD_NAME));
+    }
+
+    @Test
+    void decode_newerVersion_ignoresFieldsAppendedToTheEventAndToEachElement() {
+        // InventoryCheckResultEvent v2 as a future writer might send it: one byte more per issue, two more at the end
+        byte[] value = {
+                2,                      // status REJECTED
+                3, 'o', '1',            // orderId
+                2,                      // one issue
+                5, 3, 'P', '1', 1, 0x7F, // issue: productId, reason UNKNOWN_PRODUCT, new field
+                5, 1                    // new event fields
+        };
+        EventSchema v1 = EventWireCodec.INVENTORY_CHECK_RESULT;
+        byte[] v2 = new EventSchema(v1.type(), v1.version() + 1, 42L).toHeader();
+
+        Object decoded = codec.decode(v2, value);
+
+        assertEquals(new InventoryCheckResultEvent("o1", InventoryStatus.REJECTED,
+                List.of(new InventoryIssue("P1", InventoryCheckReason.UNKNOWN_PRODUCT))), decoded);
+    }
+
+    @Test
+    void decode_newerVersion_unknownEnumCodes_decodeAsNullOrUnknown() {
+        // OrderEvent v2 from a writer that added a status and a category
+        byte[] value = {
+                9,                      // status added in v2
+                3, 'o', '2',            // orderId
+                0,                      // customerName null
+                2,                      // one item
+                5, 9, 3, 'P', '2', 2    // item: category added in v2, productId, quantity 1
+        };
+        EventSchema v1 = EventWireCodec.ORDER_EVENT;
+        byte[] v2 = new EventSchema(v1.type(), v1.version() + 1, 42L).toHeader();
+
+        Object decoded = codec.decode(v2, value);
+
+        assertEquals(new OrderEvent("o2", null, List.of(new OrderItem(Category.UNKNOWN, "P2", 1)), null), decoded);
+
+        byte[] result = {9, 3, 'o', '3', 0};  // InventoryCheckResultEvent v2: status added in v2, orderId, issues null
+        EventSchema resultV1 = EventWireCodec.INVENTORY_CHECK_RESULT;
+        InventoryCheckResultEvent decodedResult = (InventoryCheckResultEvent) codec.decode(
+                new EventSchema(resultV1.type(), resultV1.version() + 1, 42L).toHeader(), result);
+
+        assertEquals("o3", decodedResult.getOrderId());
+        assertNull(decodedResult.getStatus());
+    }
+
+    @Test
+    void deserializer_knownVersionWithOtherFingerprint_isRejected() {
+        OrderEvent order = new OrderEvent("id-5", "Daniel", List.of(), InventoryStatus.PENDING);
+        EventSchema v1 = EventWireCodec.ORDER_EVENT;
+        Headers headers = new RecordHeaders();
+        headers.add(EventWireCodec.SCHEMA_HEADER, new EventSchema(v1.type(), v1.version(), v1.fingerprint() + 1).toHeader());
+
+        assertThrows(SerializationException.class,
+                () -> deserializer().deserialize("topic", headers, codec.encode(order)));
+    }
+
+    @Test
+    void deserializer_truncatedValue_isRejected() {
+        OrderEvent order = new OrderEvent("id-6", "Daniel", List.of(new OrderItem(Category.STANDARD, "P1001", 2)), InventoryStatus.PENDING);
+        Headers headers = new RecordHeaders();
+        byte[] bytes = serializer(CONFIG).serialize("topic", headers, order);
+
+        assertThrows(SerializationException.class,
+                () -> deserializer().deserialize("topic", headers, Arrays.copyOf(bytes, bytes.length - 2)));
+    }
+
+    // mvn -pl common-model test -Dtest=EventWireCodecTest -Dbenchmark=true
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void compareWithJson() {
+        BinaryEventSerializer binary = serializer(CONFIG);
+        BinaryEventDeserializer binaryReader = deserializer();
+        JsonSerializer<Object> json = new JsonSerializer<>();
+        json.configure(CONFIG, false);
+        JsonDeserializer<Object> jsonReader = new JsonDeserializer<>();
+        jsonReader.configure(CONFIG, false);
+        for (int itemCount : new int[]{1, 5, 50}) {
+            OrderEvent order = new OrderEvent(UUID.randomUUID().toString(), "Daniel", items(itemCount), InventoryStatus.PENDING);
+            Headers binaryHeaders = new RecordHeaders();
+            byte[] binaryBytes = binary.serialize("orders", binaryHeaders, order);
+            Headers jsonHeaders = new RecordHeaders();
+            byte[] jsonBytes = json.serialize("orders", jsonHeaders, order);
+            System.out.printf("items=%d value+headers: binary=%dB json=%dB%n", itemCount,
+                    binaryBytes.length + size(binaryHeaders), jsonBytes.length + size(jsonHeaders));
+            System.out.printf("items=%d binary encode=%dns decode=%dns%n", itemCount,
+                    nanosPerOp(() -> binary.serialize("orders", new RecordHeaders(), order)),
+                    nanosPerOp(() -> binaryReader.deserialize("orders", new RecordHeaders(binaryHeaders.toArray()), binaryBytes)));
+            System.out.printf("items=%d json   encode=%dns decode=%dns%n", itemCount,
+                    nanosPerOp(() -> json.serialize("orders", new RecordHeaders(), order)),
+                    nanosPerOp(() -> jsonReader.deserialize("orders", new RecordHeaders(jsonHeaders.toArray()), jsonBytes)));
+        }
+    }
+
+    private Object decode(Object event) {
+        return codec.decode(codec.schemaOf(event).toHeader(), codec.encode(event));
+    }
+
+    private static BinaryEventSerializer serializer(Map<String, Object> config) {
+        BinaryEventSerializer serializer = new BinaryEventSerializer();
+        serializer.configure(config, false);
+        return serializer;
+    }
+
+    private static BinaryEventDeserializer deserializer() {
+        BinaryEventDeserializer deserializer = new BinaryEventDeserializer();
+        deserializer.configure(CONFIG, false);
+        return deserializer;
+    }
+
+    private static int size(Headers headers) {
+        int size = 0;
+        for (var header : headers)
+            size += header.key().length() + header.value().length;
+        return size;
+    }
+
+    private static long nanosPerOp(Runnable op) {
+        int iterations = 50_000;
+        for (int i = 0; i < iterations; i++)
+            op.run();
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++)
+            op.run();
+        return (System.nanoTime() - start) / iterations;
+    }
+
+    private static List<OrderItem> items(int count) {
+        List<OrderItem> items = new ArrayList<>(count);
+        Category[] categories = Category.values();
+        for (int i = 0; i < count; i++)
+            items.add(new OrderItem(categories[i % categories.length], "P" + (1000 + i), 1 + i % 5));
+        return items;
+    }
+}
@@ -0,0 +1,114 @@
+package com.assignment.commonmodel;
+
+import com.assignment.commonmodel.codec.OrderEventCodec;
+import com.assignment.commonmodel.codec.OrderEventRedisSerializer;
+import com.assignment.commonmodel.model.Category;
+import com.assignment.commonmodel.model.InventoryStatus;
+import com.assignment.commonmodel.model.OrderEvent;
+import com.assignment.commonmodel.model.OrderItem;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderEventCodecTest {
+
+    private final OrderEventCodec codec = new OrderEventCodec(512);
+
+    @Test
+    void encode_roundTrips_allFields_andIsSmallerThanJson() {
+        OrderEvent order = new OrderEvent("0SQ4B3H2M07ZK", "Daniel", List.of(
+                new OrderItem(Category.STANDARD, "P1001", 2),
+                new OrderItem(Category.PERISHABLE, "P1002", 1)), InventoryStatus.PENDING);
+
+        byte[] bytes = codec.encode(order);
+
+        assertEquals(order, codec.decode(bytes));
+        assertTrue(bytes.length * 4 < new GenericJackson2JsonRedisSerializer().serialize(order).length);
+    }
+
+    @Test
+    void encode_nullsAndUnicode_roundTrip() {
+        OrderEvent order = new OrderEvent("id-1", null, null, null);
+        assertEquals(order, codec.decode(codec.encode(order)));
+
+        OrderEvent unicode = new OrderEvent("id-2", "דניאל", List.of(new OrderItem(null, "מוצר", -3)), InventoryStatus.REJECTED);
+        assertEquals(unicode, codec.decode(codec.encode(unicode)));
+    }
+
+    @Test
+    void encode_largeItemList_isCompressed_andStatusStaysAtFixedOffset() {
+        OrderEvent order = new OrderEvent("id-3", "Daniel", items(200), InventoryStatus.PENDING);
+
+        byte[] bytes = codec.encode(order);
+
+        assertNotEquals(0, bytes[3] & OrderEventCodec.FLAG_COMPRESSED);
+        assertTrue(bytes.length < new OrderEventCodec(Integer.MAX_VALUE).encode(order).length);
+        bytes[OrderEventCodec.STATUS_OFFSET] = OrderEventCodec.statusCode(InventoryStatus.APPROVED);
+        OrderEvent decoded = codec.decode(bytes);
+        assertEquals(InventoryStatus.APPROVED, decoded.getStatus());
+        assertEquals(order.getItems(), decoded.getItems());
+    }
+
+    @Test
+    void serializer_readsJsonWrittenBeforeTheCodec() {
+        OrderEvent order = new OrderEvent("id-4", "Daniel", List.of(new OrderItem(Category.DIGITAL, "P1003", 1)), InventoryStatus.APPROVED);
+        byte[] json = new GenericJackson2JsonRedisSerializer().serialize(order);
+
+        OrderEventRedisSerializer serializer = new OrderEventRedisSerializer(true, 512);
+
+        assertEquals(order, serializer.deserialize(json));
+        assertEquals(order, serializer.deserialize(serializer.serialize(order)));
+        assertEquals("not-an-order", serializer.deserialize(serializer.serialize("not-an-order")));
+        assertArrayEquals(json, new OrderEventRedisSerializer(false, 512).serialize(order));
+    }
+
+    @Test
+    void decode_newerVersion_isRejected() {
+        byte[] bytes = codec.encode(new OrderEvent("id-5", "Daniel", List.of(), InventoryStatus.PENDING));
+        bytes[1] = OrderEventCodec.VERSION + 1;
+
+        assertThrows(IllegalArgumentException.class, () -> codec.decode(bytes));
+    }
+
+    // mvn -pl common-model test -Dtest=OrderEventCodecTest -Dbenchmark=true
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void compareWithJson() {
+        OrderEventRedisSerializer binary = new OrderEventRedisSerializer(true, 512);
+        GenericJackson2JsonRedisSerializer json = new GenericJackson2JsonRedisSerializer();
+        for (int itemCount : new int[]{2, 20, 200}) {
+            OrderEvent order = new OrderEvent(UUID.randomUUID().toString(), "Daniel", items(itemCount), InventoryStatus.PENDING);
+            byte[] binaryBytes = binary.serialize(order);
+            byte[] jsonBytes = json.serialize(order);
+            System.out.printf("items=%d size: binary=%dB json=%dB%n", itemCount, binaryBytes.length, jsonBytes.length);
+            System.out.printf("items=%d binary encode=%dns decode=%dns%n", itemCount,
+                    nanosPerOp(() -> binary.serialize(order)), nanosPerOp(() -> binary.deserialize(binaryBytes)));
+            System.out.printf("items=%d json   encode=%dns decode=%dns%n", itemCount,
+                    nanosPerOp(() -> json.serialize(order)), nanosPerOp(() -> json.deserialize(jsonBytes)));
+        }
+    }
+
+    private static long nanosPerOp(Runnable op) {
+        int iterations = 50_000;
+        for (int i = 0; i < iterations; i++)
+            op.run();
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++)
+            op.run();
+        return (System.nanoTime() - start) / iterations;
+    }
+
+    private static List<OrderItem> items(int count) {
+        List<OrderItem> items = new ArrayList<>(count);
+        Category[] categories = Category.values();
+        for (int i = 0; i < count; i++)
+            items.add(new OrderItem(categories[i % categories.length], "P" + (1000 + i), 1 + i % 5));
+        return items;
+    }
+}
@@ -0,0 +1,62 @@
+package com.assignment.inventoryservice.concurrency;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs tasks on a fixed set of single-threaded lanes, choosing the lane from the task's key: tasks with the same key
+ * run one after another in submission order, tasks with different keys run in parallel. Tasks without a key are
+ * spread over the lanes round-robin.
+ */
+public class KeyOrderedExecutor implements AutoCloseable {
+
+    private final ExecutorService[] lanes;
+    private final AtomicInteger nextUnkeyed = new AtomicInteger();
+
+    public KeyOrderedExecutor(String name, int laneCount) {
+        if (laneCount < 1)
+            throw new IllegalArgumentException("laneCount must be positive");
+        lanes = new ExecutorService[laneCount];
+        for (int i = 0; i < laneCount; i++) {
+            String threadName = name + "-" + i;
+            lanes[i] = Executors.newSingleThreadExecutor(task -> {
+                Thread thread = new Thread(task, threadName);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    public void execute(String key, Runnable task) {
+        lanes[laneOf(key)].execute(task);
+    }
+
+    public int laneCount() {
+        return lanes.length;
+    }
+
+    int laneOf(String key) {
+        if (key == null)
+            return Math.floorMod(nextUnkeyed.getAndIncrement(), lanes.length);
+        return Math.floorMod(key.hashCode(), lanes.length);
+    }
+
+    /**
+     * Stops taking tasks and waits up to {@code timeout} for the queued ones, whose offsets would otherwise be
+     * redelivered to whichever consumer gets the partition next.
+     */
+    public void close(long timeout, TimeUnit unit) throws InterruptedException {
+        for (ExecutorService lane : lanes)
+            lane.shutdown();
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        for (ExecutorService lane : lanes)
+            lane.awaitTermination(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        close(30, TimeUnit.SECONDS);
+    }
+}
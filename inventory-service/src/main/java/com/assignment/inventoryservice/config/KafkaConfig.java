@@ -1,10 +1,18 @@
 package com.assignment.inventoryservice.config;
 
+import com.assignment.commonmodel.kafka.ProducerProfile;
+import com.assignment.inventoryservice.concurrency.KeyOrderedExecutor;
 import org.apache.kafka.clients.admin.NewTopic;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.kafka.ConcurrentKafkaListenerContainerFactoryConfigurer;
+import org.springframework.boot.autoconfigure.kafka.DefaultKafkaProducerFactoryCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
 
 
 @Configuration
@@ -19,4 +27,34 @@ public class KafkaConfig {
                 .build();
     }
 
+    // inventory results follow the order traffic, so they use the same named tuning as the order producer
+    @Bean
+    public DefaultKafkaProducerFactoryCustomizer producerProfileCustomizer(
+            @Value("${app.kafka.producerProfile:low-latency}") String producerProfile) {
+        ProducerProfile profile = ProducerProfile.from(producerProfile);
+        return producerFactory -> producerFactory.updateConfigs(profile.properties());
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "app.kafka.parallel.enabled", havingValue = "true")
+    public KeyOrderedExecutor orderLanes(@Value("${app.kafka.parallel.lanes:0}") int lanes) {
+        return new KeyOrderedExecutor("order-lane", lanes > 0 ? lanes : Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Boot's listener settings, but with manual out-of-order acks: the lanes acknowledge records as they finish and
+     * the container commits each partition up to the first offset still unacknowledged. The consumer is paused while
+     * a poll is still being worked on, which bounds what the lanes can queue to one poll.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "app.kafka.parallel.enabled", havingValue = "true")
+    public ConcurrentKafkaListenerContainerFactory<Object, Object> parallelListenerContainerFactory(
+            ConcurrentKafkaListenerContainerFactoryConfigurer configurer, ConsumerFactory<Object, Object> consumerFactory) {
+        ConcurrentKafkaListenerContainerFactory<Object, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        configurer.configure(factory, consumerFactory);
+        factory.setBatchListener(false);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        factory.getContainerProperties().setAsyncAcks(true);
+        return factory;
+    }
 }
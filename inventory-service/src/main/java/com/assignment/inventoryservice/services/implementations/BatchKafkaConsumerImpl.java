@@ -0,0 +1,48 @@
+package com.assignment.inventoryservice.services.implementations;
+
+import com.assignment.commonmodel.model.InventoryCheckResultEvent;
+import com.assignment.commonmodel.model.OrderEvent;
+import com.assignment.inventoryservice.services.interfaces.KafkaBatchEventConsumer;
+import lombok.RequiredArgsConstructor;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Receives a whole poll per call when spring.kafka.listener.type=batch. Offsets are committed once, after this
+ * returns (ack-mode batch), and that happens only after every result of the poll is acknowledged by the broker.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "spring.kafka.listener.type", havingValue = "batch")
+@ConditionalOnProperty(name = "app.kafka.parallel.enabled", havingValue = "false", matchIfMissing = true)
+public class BatchKafkaConsumerImpl implements KafkaBatchEventConsumer {
+    private static final Logger logger = LoggerFactory.getLogger(BatchKafkaConsumerImpl.class);
+    private final InventoryServiceImpl inventoryService;
+
+    @KafkaListener(
+            topics = "${app.topics.orders:orders}",
+            groupId = "${spring.kafka.consumer.group-id:inventory-service}"
+    )
+    public void listenOrderEvents(List<ConsumerRecord<String, OrderEvent>> records) {
+        List<OrderEvent> orders = new ArrayList<>(records.size());
+        for (ConsumerRecord<String, OrderEvent> record : records) {
+            // the ErrorHandlingDeserializer leaves a null value for a record it could not read
+            if (record.value() == null) {
+                logger.error("Skipping unreadable OrderEvent key={} at {}-{}@{}",
+                        record.key(), record.topic(), record.partition(), record.offset());
+                continue;
+            }
+            orders.add(record.value());
+        }
+        logger.info("Received {} OrderEvents from order-service", orders.size());
+        List<InventoryCheckResultEvent> results = inventoryService.checkOrders(orders);
+        logger.debug("Published {} inventory results", results.size());
+    }
+}
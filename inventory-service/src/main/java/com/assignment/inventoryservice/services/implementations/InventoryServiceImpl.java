@@ -11,6 +11,7 @@ import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.util.Assert;
@@ -24,6 +25,46 @@ public class InventoryServiceImpl implements InventoryService {
     private final KafkaEventPublisherImpl KafkaEventPublisher;
     @Override
     public InventoryCheckResultEvent checkOrder(@Payload OrderEvent orderEvent) {
+        InventoryCheckResultEvent inventoryEvent = evaluate(orderEvent);
+        if (inventoryEvent != null)
+            KafkaEventPublisher.publishInventoryCheckEvent(inventoryEvent);
+        return inventoryEvent;
+    }
+
+    /**
+     * Like {@link #checkOrder}, but completes only once the broker acknowledged the result (or failed to), for
+     * callers that acknowledge each record on their own.
+     */
+    @Override
+    public CompletableFuture<InventoryCheckResultEvent> checkOrderAsync(OrderEvent orderEvent) {
+        InventoryCheckResultEvent inventoryEvent = evaluate(orderEvent);
+        if (inventoryEvent == null)
+            return CompletableFuture.completedFuture(null);
+        return KafkaEventPublisher.publishInventoryCheckEvent(inventoryEvent).thenApply(sent -> inventoryEvent);
+    }
+
+    /**
+     * Checks every order of a poll against the catalog, then publishes all results together and returns once the
+     * broker has acknowledged them. An order without items is logged and skipped, as retrying it cannot succeed.
+     */
+    @Override
+    public List<InventoryCheckResultEvent> checkOrders(List<OrderEvent> orderEvents) {
+        List<InventoryCheckResultEvent> results = new ArrayList<>(orderEvents.size());
+        for (OrderEvent orderEvent : orderEvents) {
+            try {
+                InventoryCheckResultEvent result = evaluate(orderEvent);
+                if (result != null)
+                    results.add(result);
+            } catch (IllegalArgumentException e) {
+                logger.error("Skipping invalid order orderId={}: {}", orderEvent.getOrderId(), e.getMessage());
+            }
+        }
+        if (!results.isEmpty())
+            KafkaEventPublisher.publishInventoryCheckEvents(results);
+        return results;
+    }
+
+    private InventoryCheckResultEvent evaluate(OrderEvent orderEvent) {
 
         Assert.notEmpty(orderEvent.getItems(), "Items cannot be empty");
 
@@ -84,9 +125,7 @@ public class InventoryServiceImpl implements InventoryService {
         logger.info("Inventory result: {} (orderId={}, missing={})",
                 status, orderId, missingItems);
 
-        InventoryCheckResultEvent inventoryEvent = new InventoryCheckResultEvent(orderId,status,List.copyOf(missingItems));
-        KafkaEventPublisher.publishInventoryCheckEvent(inventoryEvent);
-        return null;
+        return new InventoryCheckResultEvent(orderId,status,List.copyOf(missingItems));
     }
 
     private static InventoryIssue buildRejectedItem(String productId, InventoryCheckReason reason) {
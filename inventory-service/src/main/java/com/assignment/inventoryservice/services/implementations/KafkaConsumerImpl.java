@@ -4,6 +4,7 @@ import com.assignment.commonmodel.model.InventoryCheckResultEvent;
 import com.assignment.commonmodel.model.OrderEvent;
 import com.assignment.inventoryservice.services.interfaces.KafkaEventConsumer;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Component;
 import org.slf4j.Logger;
@@ -11,6 +12,8 @@ import org.slf4j.LoggerFactory;
 
 @Component
 @RequiredArgsConstructor
+@ConditionalOnProperty(name = "spring.kafka.listener.type", havingValue = "single", matchIfMissing = true)
+@ConditionalOnProperty(name = "app.kafka.parallel.enabled", havingValue = "false", matchIfMissing = true)
 public class KafkaConsumerImpl implements KafkaEventConsumer {
     private static final Logger logger = LoggerFactory.getLogger(KafkaConsumerImpl.class);
     private final InventoryServiceImpl inventoryService;
@@ -6,11 +6,17 @@ import com.assignment.inventoryservice.services.interfaces.KafkaEventPublisher;
 import lombok.RequiredArgsConstructor;
 import org.springframework.kafka.KafkaException;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Service;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
 @Service
 @RequiredArgsConstructor
 public class KafkaEventPublisherImpl implements KafkaEventPublisher {
@@ -20,14 +26,18 @@ public class KafkaEventPublisherImpl implements KafkaEventPublisher {
     private static final Logger logger = LoggerFactory.getLogger(KafkaEventPublisherImpl.class);
     private final KafkaTemplate<String, Object> orderEventProducer;
 
+    /**
+     * Returns the send, completing once the broker acknowledged the result, for callers that must not commit the
+     * order's offset before that.
+     */
     @Override
-    public void publishInventoryCheckEvent(InventoryCheckResultEvent event) {
+    public CompletableFuture<SendResult<String, Object>> publishInventoryCheckEvent(InventoryCheckResultEvent event) {
 
         String orderId = event.getOrderId();
         try {
             logger.info("Publishing InventoryCheck Event for orderId={} to topic={}", event.getOrderId(), inventoryResultsTopic);
 
-            orderEventProducer.send(inventoryResultsTopic, event.getOrderId(), event)
+            return orderEventProducer.send(inventoryResultsTopic, event.getOrderId(), event)
                     .whenComplete((result, exception) -> {
                         if (exception != null) {
                             logger.error("Failed to publish InventoryCheck Event for orderId={}",orderId, exception);
@@ -45,4 +55,24 @@ public class KafkaEventPublisherImpl implements KafkaEventPublisher {
         }
     }
 
+    /**
+     * Hands all results to the producer before waiting on any of them, so they leave in as few requests as the
+     * producer profile allows, and returns only once every one is acknowledged: the batch listener commits the poll
+     * right after, and a failure here makes the container retry it instead.
+     */
+    @Override
+    public void publishInventoryCheckEvents(List<InventoryCheckResultEvent> events) {
+        logger.info("Publishing {} InventoryCheck Events to topic={}", events.size(), inventoryResultsTopic);
+        List<CompletableFuture<SendResult<String, Object>>> sends = new ArrayList<>(events.size());
+        try {
+            for (InventoryCheckResultEvent event : events)
+                sends.add(orderEventProducer.send(inventoryResultsTopic, event.getOrderId(), event));
+            CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new)).join();
+        } catch (KafkaException | CompletionException e) {
+            Throwable cause = e instanceof CompletionException ? e.getCause() : e;
+            logger.error("Failed to publish {} InventoryCheck Events", events.size(), cause);
+            throw new KafkaPublishException("Kafka publish failed, Error occurred in Kafka process", cause);
+        }
+    }
+
 }
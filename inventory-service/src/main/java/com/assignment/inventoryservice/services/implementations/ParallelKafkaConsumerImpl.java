@@ -0,0 +1,92 @@
+package com.assignment.inventoryservice.services.implementations;
+
+import com.assignment.commonmodel.model.OrderEvent;
+import com.assignment.inventoryservice.concurrency.KeyOrderedExecutor;
+import com.assignment.inventoryservice.services.interfaces.KafkaKeyOrderedEventConsumer;
+import lombok.RequiredArgsConstructor;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Hands each OrderEvent to a lane picked by its key (the orderId), so one consumer thread keeps every core busy while
+ * events of the same order are still checked in order. Each record is acknowledged from its lane once the broker has
+ * acknowledged its result; the container (async acks) commits a partition only up to the lowest offset not acknowledged
+ * yet, so a restart redelivers everything that was still in flight.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.kafka.parallel.enabled", havingValue = "true")
+public class ParallelKafkaConsumerImpl implements KafkaKeyOrderedEventConsumer {
+    private static final Logger logger = LoggerFactory.getLogger(ParallelKafkaConsumerImpl.class);
+    private final InventoryServiceImpl inventoryService;
+    private final KeyOrderedExecutor orderLanes;
+
+    @Value("${app.kafka.parallel.maxAttempts:3}")
+    private int maxAttempts;
+
+    @Value("${app.kafka.parallel.retryBackoff:PT0.5S}")
+    private Duration retryBackoff;
+
+    @KafkaListener(
+            topics = "${app.topics.orders:orders}",
+            groupId = "${spring.kafka.consumer.group-id:inventory-service}",
+            containerFactory = "parallelListenerContainerFactory"
+    )
+    public void listenOrderEvent(ConsumerRecord<String, OrderEvent> record, Acknowledgment acknowledgment) {
+        // the ErrorHandlingDeserializer leaves a null value for a record it could not read
+        if (record.value() == null) {
+            logger.error("Skipping unreadable OrderEvent key={} at {}-{}@{}",
+                    record.key(), record.topic(), record.partition(), record.offset());
+            acknowledgment.acknowledge();
+            return;
+        }
+        logger.info("Received OrderEvent orderId={} from order-service", record.value().getOrderId());
+        orderLanes.execute(record.key(), () -> {
+            if (check(record))
+                acknowledgment.acknowledge();
+        });
+    }
+
+    /**
+     * Waits on the lane until the broker acknowledged the result, so the offset is never committed past a result that
+     * was not sent, and retries there, so later events of the same order wait and other orders carry on. After the
+     * last attempt, or straight away for an invalid order, the event is logged and skipped like the default error
+     * handler does. Returns false only when interrupted while shutting down, leaving the record unacknowledged for
+     * redelivery.
+     */
+    private boolean check(ConsumerRecord<String, OrderEvent> record) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                inventoryService.checkOrderAsync(record.value()).get();
+                return true;
+            } catch (InterruptedException interrupted) {
+                Thread.currentThread().interrupt();
+                return false;
+            } catch (RuntimeException | ExecutionException e) {
+                Throwable failure = e instanceof ExecutionException ? e.getCause() : e;
+                if (attempt >= maxAttempts || failure instanceof IllegalArgumentException) {
+                    logger.error("Skipping OrderEvent orderId={} at {}-{}@{} after {} attempt(s)",
+                            record.value().getOrderId(), record.topic(), record.partition(), record.offset(), attempt, failure);
+                    return true;
+                }
+                logger.warn("Checking orderId={} failed (attempt {}/{}), retrying in {}",
+                        record.value().getOrderId(), attempt, maxAttempts, retryBackoff, failure);
+                try {
+                    Thread.sleep(retryBackoff.toMillis());
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+        }
+    }
+}
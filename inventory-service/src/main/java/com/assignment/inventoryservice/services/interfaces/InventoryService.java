@@ -3,8 +3,15 @@ package com.assignment.inventoryservice.services.interfaces;
 import com.assignment.commonmodel.model.OrderEvent;
 import com.assignment.commonmodel.model.InventoryCheckResultEvent;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
 public interface InventoryService {
 
     public InventoryCheckResultEvent checkOrder(OrderEvent order);
 
+    public CompletableFuture<InventoryCheckResultEvent> checkOrderAsync(OrderEvent order);
+
+    public List<InventoryCheckResultEvent> checkOrders(List<OrderEvent> orders);
+
 }
@@ -0,0 +1,10 @@
+package com.assignment.inventoryservice.services.interfaces;
+
+import com.assignment.commonmodel.model.OrderEvent;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+
+import java.util.List;
+
+public interface KafkaBatchEventConsumer {
+    void listenOrderEvents(List<ConsumerRecord<String, OrderEvent>> records);
+}
@@ -1,7 +1,13 @@
 package com.assignment.inventoryservice.services.interfaces;
 
 import com.assignment.commonmodel.model.InventoryCheckResultEvent;
+import org.springframework.kafka.support.SendResult;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public interface KafkaEventPublisher {
-    void publishInventoryCheckEvent(InventoryCheckResultEvent inventoryCheckResultEvent);
+    CompletableFuture<SendResult<String, Object>> publishInventoryCheckEvent(InventoryCheckResultEvent inventoryCheckResultEvent);
+
+    void publishInventoryCheckEvents(List<InventoryCheckResultEvent> inventoryCheckResultEvents);
 }
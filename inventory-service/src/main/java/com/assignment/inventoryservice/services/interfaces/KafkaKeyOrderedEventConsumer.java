@@ -0,0 +1,9 @@
+package com.assignment.inventoryservice.services.interfaces;
+
+import com.assignment.commonmodel.model.OrderEvent;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.kafka.support.Acknowledgment;
+
+public interface KafkaKeyOrderedEventConsumer {
+    void listenOrderEvent(ConsumerRecord<String, OrderEvent> record, Acknowledgment acknowledgment);
+}
@@ -18,6 +18,7 @@ import static org.mockito.Mockito.*;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 @ExtendWith(MockitoExtension.class)
 public class InventoryServiceTest {
@@ -35,8 +36,8 @@ public class InventoryServiceTest {
         catalog = new InventoryCatalogConfig().productCatalog();
         inventoryService  = new InventoryServiceImpl(catalog, publisher);
 
-        doNothing().when(publisher)
-                .publishInventoryCheckEvent(any(InventoryCheckResultEvent.class));
+        lenient().when(publisher.publishInventoryCheckEvent(any(InventoryCheckResultEvent.class)))
+                .thenReturn(CompletableFuture.completedFuture(null));
     }
 
     private static OrderEvent orderEventBuilder(String id, OrderItem... items) {
@@ -54,6 +55,26 @@ public class InventoryServiceTest {
         return item;
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    void batch_checks_every_order_skips_empty_one_and_publishes_results_in_one_call() {
+        String rejectedId = UUID.randomUUID().toString();
+        OrderEvent approved = orderEventBuilder(orderId, itemBuilder(Category.STANDARD, "P1001", 2));
+        OrderEvent rejected = orderEventBuilder(rejectedId, itemBuilder(Category.STANDARD, "PX404", 1));
+        OrderEvent empty = orderEventBuilder("empty");
+
+        List<InventoryCheckResultEvent> results = inventoryService.checkOrders(List.of(approved, empty, rejected));
+
+        ArgumentCaptor<List<InventoryCheckResultEvent>> batchCaptor = ArgumentCaptor.forClass(List.class);
+        verify(publisher, times(1)).publishInventoryCheckEvents(batchCaptor.capture());
+        verify(publisher, never()).publishInventoryCheckEvent(any(InventoryCheckResultEvent.class));
+
+        assertEquals(results, batchCaptor.getValue());
+        assertThat(results).extracting(InventoryCheckResultEvent::getOrderId).containsExactly(orderId, rejectedId);
+        assertThat(results).extracting(InventoryCheckResultEvent::getStatus)
+                .containsExactly(InventoryStatus.APPROVED, InventoryStatus.REJECTED);
+    }
+
     @Test
     void perishable_expired_REJECTED_with_issue() {
         inventoryService = new InventoryServiceImpl(catalog, publisher);
@@ -0,0 +1,137 @@
+package com.assignment.inventoryservice;
+
+import com.assignment.commonmodel.model.Category;
+import com.assignment.commonmodel.model.InventoryCheckResultEvent;
+import com.assignment.commonmodel.model.OrderEvent;
+import com.assignment.commonmodel.model.OrderItem;
+import com.assignment.inventoryservice.concurrency.KeyOrderedExecutor;
+import com.assignment.inventoryservice.services.implementations.InventoryServiceImpl;
+import com.assignment.inventoryservice.services.implementations.ParallelKafkaConsumerImpl;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.KafkaException;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class ParallelKafkaConsumerTest {
+
+    private final KeyOrderedExecutor lanes = new KeyOrderedExecutor("test-lane", 4);
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        lanes.close(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void lanes_keepOrderPerKey_whileOtherKeysRunConcurrently() throws InterruptedException {
+        // "a" and "b" hash to different lanes out of 4
+        CountDownLatch bRan = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(4);
+        List<String> order = new CopyOnWriteArrayList<>();
+
+        lanes.execute("a", () -> {
+            try {
+                // only returns if "b" is not queued behind this task
+                assertTrue(bRan.await(5, TimeUnit.SECONDS));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            order.add("a1");
+            done.countDown();
+        });
+        lanes.execute("a", () -> {
+            order.add("a2");
+            done.countDown();
+        });
+        lanes.execute("b", () -> {
+            order.add("b1");
+            bRan.countDown();
+            done.countDown();
+        });
+        lanes.execute("a", () -> {
+            order.add("a3");
+            done.countDown();
+        });
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of("b1", "a1", "a2", "a3"), order);
+    }
+
+    @Test
+    void consumer_retriesAFailedSendOnTheLane_thenAcknowledges() throws InterruptedException {
+        InventoryServiceImpl inventoryService = mock(InventoryServiceImpl.class);
+        when(inventoryService.checkOrderAsync(any(OrderEvent.class)))
+                .thenReturn(CompletableFuture.failedFuture(new KafkaException("Send failed")))
+                .thenReturn(CompletableFuture.completedFuture(null));
+        ParallelKafkaConsumerImpl consumer = consumer(inventoryService);
+        CountDownLatch acknowledged = new CountDownLatch(1);
+        Acknowledgment acknowledgment = acknowledged::countDown;
+
+        OrderEvent order = new OrderEvent("o-1", "Daniel", List.of(new OrderItem(Category.STANDARD, "P1001", 1)), null);
+        consumer.listenOrderEvent(new ConsumerRecord<>("orders", 0, 7L, "o-1", order), acknowledgment);
+
+        assertTrue(acknowledged.await(5, TimeUnit.SECONDS));
+        verify(inventoryService, times(2)).checkOrderAsync(order);
+    }
+
+    @Test
+    void consumer_acknowledgesOnlyOnceTheSendCompleted() throws InterruptedException {
+        InventoryServiceImpl inventoryService = mock(InventoryServiceImpl.class);
+        CompletableFuture<InventoryCheckResultEvent> send = new CompletableFuture<>();
+        when(inventoryService.checkOrderAsync(any(OrderEvent.class))).thenReturn(send);
+        ParallelKafkaConsumerImpl consumer = consumer(inventoryService);
+        CountDownLatch acknowledged = new CountDownLatch(1);
+
+        OrderEvent order = new OrderEvent("o-3", "Daniel", List.of(new OrderItem(Category.STANDARD, "P1001", 1)), null);
+        consumer.listenOrderEvent(new ConsumerRecord<>("orders", 0, 9L, "o-3", order), acknowledged::countDown);
+
+        assertFalse(acknowledged.await(200, TimeUnit.MILLISECONDS));
+        send.complete(null);
+        assertTrue(acknowledged.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void consumer_invalidOrder_isSkippedWithoutRetry_andAcknowledged() throws InterruptedException {
+        InventoryServiceImpl inventoryService = mock(InventoryServiceImpl.class);
+        when(inventoryService.checkOrderAsync(any(OrderEvent.class))).thenThrow(new IllegalArgumentException("Items cannot be empty"));
+        ParallelKafkaConsumerImpl consumer = consumer(inventoryService);
+        CountDownLatch acknowledged = new CountDownLatch(1);
+
+        OrderEvent order = new OrderEvent("o-2", "Daniel", List.of(), null);
+        consumer.listenOrderEvent(new ConsumerRecord<>("orders", 0, 8L, "o-2", order), acknowledged::countDown);
+
+        assertTrue(acknowledged.await(5, TimeUnit.SECONDS));
+        verify(inventoryService, times(1)).checkOrderAsync(order);
+    }
+
+    @Test
+    void consumer_unreadableRecord_isSkippedAndAcknowledged() {
+        InventoryServiceImpl inventoryService = mock(InventoryServiceImpl.class);
+        ParallelKafkaConsumerImpl consumer = consumer(inventoryService);
+        Acknowledgment acknowledgment = mock(Acknowledgment.class);
+
+        consumer.listenOrderEvent(new ConsumerRecord<>("orders", 0, 10L, "o-4", null), acknowledgment);
+
+        verify(acknowledgment).acknowledge();
+        verifyNoInteractions(inventoryService);
+    }
+
+    private ParallelKafkaConsumerImpl consumer(InventoryServiceImpl inventoryService) {
+        ParallelKafkaConsumerImpl consumer = new ParallelKafkaConsumerImpl(inventoryService, lanes);
+        ReflectionTestUtils.setField(consumer, "maxAttempts", 3);
+        ReflectionTestUtils.setField(consumer, "retryBackoff", Duration.ofMillis(10));
+        return consumer;
+    }
+}
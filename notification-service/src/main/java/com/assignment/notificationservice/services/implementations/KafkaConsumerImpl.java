@@ -22,6 +22,11 @@ public class KafkaConsumerImpl implements KafkaEventConsumer {
     public void consumeInventoryResult(InventoryCheckResultEvent inventoryCheckEvent) {
         logger.info("Received OrderEvent orderId={} from Inventory-service", inventoryCheckEvent.getOrderId());
         logger.debug("Event details event{}", inventoryCheckEvent);
+        if (inventoryCheckEvent.getStatus() == null) {
+            // a status added by a newer inventory-service decodes as null; there is nothing to notify about
+            logger.error("Skipping inventory result with unknown status for orderId={}", inventoryCheckEvent.getOrderId());
+            return;
+        }
         notificationService.handleInventoryResult(inventoryCheckEvent);
     }
 
@@ -2,18 +2,45 @@ package com.assignment.notificationservice.services.implementations;
 
 import com.assignment.commonmodel.constants.Constants;
 import com.assignment.commonmodel.model.OrderEvent;
+import com.assignment.commonmodel.resilience.CircuitBreaker;
 import com.assignment.notificationservice.services.interfaces.NotificationCacheService;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Meters are registered up front so a read only records into existing ones:
+ * {@code notifications.redis.latency{outcome}} and {@code notifications.cache.reads{source=redis|miss|skipped}}.
+ */
 @Service
-@RequiredArgsConstructor
 public class NotificationCacheServiceImpl implements NotificationCacheService {
     private static final Logger logger = LoggerFactory.getLogger(NotificationCacheServiceImpl.class);
     private final RedisTemplate<String, Object> redis;
+    private final CircuitBreaker redisCircuitBreaker;
+    private final Timer readSucceeded;
+    private final Timer readFailed;
+    private final Counter found;
+    private final Counter missing;
+    private final Counter skipped;
+
+    public NotificationCacheServiceImpl(RedisTemplate<String, Object> redis, CircuitBreaker redisCircuitBreaker,
+                                        MeterRegistry registry) {
+        this.redis = redis;
+        this.redisCircuitBreaker = redisCircuitBreaker;
+        this.readSucceeded = latency(registry, "success");
+        this.readFailed = latency(registry, "failure");
+        this.found = reads(registry, "redis");
+        this.missing = reads(registry, "miss");
+        this.skipped = reads(registry, "skipped");
+    }
 
     @Override
     public OrderEvent getOrder(String orderId) {
@@ -22,14 +49,51 @@ public class NotificationCacheServiceImpl implements NotificationCacheService {
     }
 
     private OrderEvent tryReadRedis(java.util.function.Supplier<OrderEvent> op) {
+        CircuitBreaker.Permit permit = redisCircuitBreaker.tryAcquire();
+        if (permit == null) {
+            skipped.increment();
+            logger.warn("Redis circuit open, read skipped");
+            return null;
+        }
+        long startNanos = System.nanoTime();
         try {
-            return op.get();
+            OrderEvent order = op.get();
+            permit.onSuccess();
+            readSucceeded.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+            (order != null ? found : missing).increment();
+            return order;
+        } catch (DataAccessException exception) {
+            permit.onFailure();
+            readFailed.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+            logger.error("Redis read failed: {}", exception.getClass().getSimpleName());
+            return null;
         } catch (Exception exception) {
+            readFailed.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
             logger.error("Redis read failed: {}", exception.getClass().getSimpleName());
             return null;
+        } finally {
+            permit.release();
         }
     }
     private String buildKey(String orderId){
         return Constants.ORDER_PREFIX + orderId;
     }
+
+    private static Timer latency(MeterRegistry registry, String outcome) {
+        return Timer.builder("notifications.redis.latency")
+                .description("Latency of order reads from Redis")
+                .tag("operation", "get")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1).dividedBy(10))
+                .maximumExpectedValue(Duration.ofSeconds(5))
+                .register(registry);
+    }
+
+    private static Counter reads(MeterRegistry registry, String source) {
+        return Counter.builder("notifications.cache.reads")
+                .description("Order reads by outcome")
+                .tag("source", source)
+                .register(registry);
+    }
 }
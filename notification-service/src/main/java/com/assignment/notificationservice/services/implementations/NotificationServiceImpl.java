@@ -5,6 +5,10 @@ import com.assignment.commonmodel.model.InventoryStatus;
 import com.assignment.commonmodel.model.OrderEvent;
 import com.assignment.notificationservice.services.interfaces.NotificationCacheService;
 import com.assignment.notificationservice.services.interfaces.NotificationService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
 import lombok.RequiredArgsConstructor;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
@@ -13,10 +17,11 @@ import org.slf4j.Logger;
 import java.time.Instant;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 @Service
 @RequiredArgsConstructor
-public class NotificationServiceImpl implements NotificationService {
+public class NotificationServiceImpl implements NotificationService, MeterBinder {
     private static final Logger logger = LoggerFactory.getLogger(NotificationServiceImpl.class);
     private final NotificationCacheService notificationCacheService;
     private final Map<String, Pending> pendingNotifications = new ConcurrentHashMap<>();
@@ -83,6 +88,28 @@ public class NotificationServiceImpl implements NotificationService {
             logger.info("Order {} Rejected! for customer={}, with issues={}", order.getOrderId(), order.getCustomerName(), event.getIssues());
         }
     }
+    /**
+     * Depth and age of the notifications waiting for their order to be readable from Redis;
+     * evaluated on scrape, so it may walk the queue.
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("notifications.pending", pendingNotifications, Map::size)
+                .description("Notifications queued until the order can be read from Redis")
+                .register(registry);
+        TimeGauge.builder("notifications.pending.oldest.age", this, TimeUnit.MILLISECONDS, NotificationServiceImpl::oldestPendingMillis)
+                .description("Age of the oldest queued notification")
+                .register(registry);
+    }
+
+    private double oldestPendingMillis() {
+        Instant oldestExpiry = null;
+        for (Pending pending : pendingNotifications.values())
+            if (oldestExpiry == null || pending.expiresAt.isBefore(oldestExpiry))
+                oldestExpiry = pending.expiresAt;
+        return oldestExpiry == null ? 0 : Math.max(0, Instant.now().toEpochMilli() - oldestExpiry.minus(ttl).toEpochMilli());
+    }
+
     private OrderEvent getOrder(String orderId) {
         try {
             return notificationCacheService.getOrder(orderId);
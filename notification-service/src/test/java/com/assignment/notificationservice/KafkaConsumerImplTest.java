@@ -0,0 +1,36 @@
+package com.assignment.notificationservice;
+
+import com.assignment.commonmodel.model.InventoryCheckResultEvent;
+import com.assignment.commonmodel.model.InventoryStatus;
+import com.assignment.notificationservice.services.implementations.KafkaConsumerImpl;
+import com.assignment.notificationservice.services.implementations.NotificationServiceImpl;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+
+public class KafkaConsumerImplTest {
+
+    private final NotificationServiceImpl notificationService = mock(NotificationServiceImpl.class);
+    private final KafkaConsumerImpl consumer = new KafkaConsumerImpl(notificationService);
+
+    @Test
+    void knownStatus_isHandled() {
+        InventoryCheckResultEvent event = new InventoryCheckResultEvent("o-1", InventoryStatus.REJECTED, List.of());
+
+        consumer.consumeInventoryResult(event);
+
+        verify(notificationService).handleInventoryResult(event);
+    }
+
+    @Test
+    void unknownStatus_isSkipped() {
+        InventoryCheckResultEvent event = new InventoryCheckResultEvent();
+        event.setOrderId("o-1");
+
+        consumer.consumeInventoryResult(event);
+
+        verifyNoInteractions(notificationService);
+    }
+}
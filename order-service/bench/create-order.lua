@@ -0,0 +1,15 @@
+-- wrk script for POST /orders, used to compare the default and the virtual-threads profiles.
+-- Usage: wrk -t8 -c10000 -d60s --timeout 10s -s bench/create-order.lua http://localhost:8080/orders
+-- Without wrk, Redis and Kafka: VirtualThreadsBenchmarkTest (see README, Virtual threads mode).
+wrk.method = "POST"
+wrk.headers["Content-Type"] = "application/json"
+wrk.body = [[
+{
+  "customerName": "Daniel",
+  "items": [
+    { "productId": "P1001", "quantity": 2, "category": "standard" },
+    { "productId": "P1002", "quantity": 1, "category": "perishable" }
+  ],
+  "requestedAt": "2099-01-01T00:00:00Z"
+}
+]]
@@ -0,0 +1,107 @@
+package com.assignment.orderservice.cache;
+
+import com.assignment.commonmodel.constants.Constants;
+import com.assignment.commonmodel.resilience.CircuitBreaker;
+import com.assignment.orderservice.concurrency.ConcurrencyGuard;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * Maps an {@code Idempotency-Key} to the orderId created for it, so a retried POST /orders returns the
+ * original order instead of creating a new one.
+ *
+ * <p>A bounded in-process window answers retries that land on the same instance without a round trip;
+ * Redis {@code SET NX} with a TTL makes the claim visible to every instance.
+ * If Redis is unavailable the key is only claimed locally.
+ */
+@Component
+public class IdempotencyStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyStore.class);
+    private final ReactiveRedisTemplate<String, Object> reactiveRedis;
+    private final ConcurrencyGuard redisGuard;
+    private final CircuitBreaker redisCircuitBreaker;
+    private final Cache<String, String> window;
+    private final Duration ttl;
+
+    public IdempotencyStore(
+            ReactiveRedisTemplate<String, Object> reactiveRedis,
+            ConcurrencyGuard redisGuard,
+            CircuitBreaker redisCircuitBreaker,
+            @Value("${app.idempotency.windowSize:100000}") long windowSize,
+            @Value("${app.idempotency.ttl:PT24H}") Duration ttl) {
+        this.reactiveRedis = reactiveRedis;
+        this.redisGuard = redisGuard;
+        this.redisCircuitBreaker = redisCircuitBreaker;
+        this.ttl = ttl;
+        this.window = Caffeine.newBuilder()
+                .maximumSize(windowSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    /**
+     * Claims the key for orderId. Emits orderId when the claim is new, otherwise the orderId of the
+     * request that claimed the key first.
+     */
+    public Mono<String> claim(String idempotencyKey, String orderId) {
+        String existing = window.asMap().putIfAbsent(idempotencyKey, orderId);
+        if (existing != null)
+            return Mono.just(existing);
+
+        String key = buildKey(idempotencyKey);
+        return Mono.defer(() -> {
+                    CircuitBreaker.Permit permit = redisCircuitBreaker.tryAcquire();
+                    if (permit == null) {
+                        logger.warn("Redis circuit open, idempotency key {} claimed locally only", idempotencyKey);
+                        return Mono.just(orderId);
+                    }
+                    return redisGuard.callReactive(() -> reactiveRedis.opsForValue().setIfAbsent(key, orderId, ttl)
+                                    .flatMap(claimed -> claimed
+                                            ? Mono.just(orderId)
+                                            : reactiveRedis.opsForValue().get(key).map(String::valueOf).defaultIfEmpty(orderId)))
+                            .doOnNext(ignored -> permit.onSuccess())
+                            .doOnError(exception -> {
+                                if (exception instanceof DataAccessException)
+                                    permit.onFailure();
+                            })
+                            .doFinally(signal -> permit.release());
+                })
+                .onErrorResume(exception -> {
+                    logger.warn("Redis unavailable for idempotency key {}, claimed locally only: {}",
+                            idempotencyKey, exception.getClass().getSimpleName());
+                    return Mono.just(orderId);
+                })
+                .doOnNext(owner -> {
+                    if (!owner.equals(orderId))
+                        window.put(idempotencyKey, owner);
+                });
+    }
+
+    /**
+     * Drops a claim whose order could not be created, so the client's retry is processed again.
+     */
+    public Mono<Void> release(String idempotencyKey, String orderId) {
+        window.asMap().remove(idempotencyKey, orderId);
+        return redisGuard.callReactive(() -> reactiveRedis.opsForValue().delete(buildKey(idempotencyKey)))
+                .onErrorResume(exception -> {
+                    logger.warn("Failed to release idempotency key {}: {}",
+                            idempotencyKey, exception.getClass().getSimpleName());
+                    return Mono.just(false);
+                })
+                .then();
+    }
+
+    private String buildKey(String idempotencyKey) {
+        return Constants.IDEMPOTENCY_PREFIX + idempotencyKey;
+    }
+}
@@ -0,0 +1,104 @@
+package com.assignment.orderservice.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Meters of the order store. Every meter is registered once here, so recording on the request path is a lookup
+ * in a final array and a {@code record}/{@code increment} on an existing meter: no tags, builders or samples are
+ * created per call.
+ *
+ * <ul>
+ *     <li>{@code orders.redis.latency{operation,outcome}}: Redis call latency, with a percentile histogram</li>
+ *     <li>{@code orders.cache.reads{source}}: where {@code getOrder} found the order (near, fallback, spill, redis)
+ *     or {@code miss}; the fallback-hit rate is fallback+spill over the total</li>
+ *     <li>{@code orders.cache.near.size}, {@code orders.redis.fallback.size}: local cache entries</li>
+ *     <li>{@code orders.redis.pending.oldest.age}: how long the oldest order has been waiting for Redis</li>
+ *     <li>{@code orders.redis.flush.batch.size}, {@code orders.redis.flush.duration}: the outage flush</li>
+ * </ul>
+ */
+@Component
+public class OrderCacheMetrics {
+
+    public enum Operation { SET, GET, SET_STATUS, PIPELINE }
+
+    public enum Source { NEAR, FALLBACK, SPILL, REDIS, MISS }
+
+    private final Timer[] succeeded = new Timer[Operation.values().length];
+    private final Timer[] failed = new Timer[Operation.values().length];
+    private final Counter[] reads = new Counter[Source.values().length];
+    private final DistributionSummary flushBatchSize;
+    private final Timer flushDuration;
+
+    public OrderCacheMetrics(MeterRegistry registry, OrderNearCache nearCache, OrderFallbackCache fallbackCache,
+                             RedisSpillLog spillLog) {
+        for (Operation operation : Operation.values()) {
+            succeeded[operation.ordinal()] = latency(registry, operation, "success");
+            failed[operation.ordinal()] = latency(registry, operation, "failure");
+        }
+        for (Source source : Source.values())
+            reads[source.ordinal()] = Counter.builder("orders.cache.reads")
+                    .description("Order reads by where the order was found")
+                    .tag("source", source.name().toLowerCase(Locale.ROOT))
+                    .register(registry);
+
+        flushBatchSize = DistributionSummary.builder("orders.redis.flush.batch.size")
+                .description("Orders per pipelined chunk of the Redis outage flush")
+                .publishPercentileHistogram()
+                .register(registry);
+        flushDuration = Timer.builder("orders.redis.flush.duration")
+                .description("Duration of a Redis outage flush")
+                .publishPercentileHistogram()
+                .register(registry);
+
+        Gauge.builder("orders.cache.near.size", nearCache, OrderNearCache::size)
+                .description("Orders in the near cache")
+                .register(registry);
+        Gauge.builder("orders.redis.fallback.size", fallbackCache, OrderFallbackCache::size)
+                .description("Orders in the in-memory Redis fallback")
+                .register(registry);
+        TimeGauge.builder("orders.redis.pending.oldest.age", () -> oldestPending(fallbackCache, spillLog), TimeUnit.MILLISECONDS)
+                .description("Age of the oldest order waiting for Redis, in memory or spilled")
+                .register(registry);
+    }
+
+    public void recordRedis(Operation operation, long startNanos, boolean ok) {
+        (ok ? succeeded : failed)[operation.ordinal()].record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordRead(Source source) {
+        reads[source.ordinal()].increment();
+    }
+
+    public void recordFlushBatch(int size) {
+        flushBatchSize.record(size);
+    }
+
+    public void recordFlush(long startNanos) {
+        flushDuration.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private static Timer latency(MeterRegistry registry, Operation operation, String outcome) {
+        return Timer.builder("orders.redis.latency")
+                .description("Latency of Redis calls made by the order store")
+                .tag("operation", operation.name().toLowerCase(Locale.ROOT))
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1).dividedBy(10))
+                .maximumExpectedValue(Duration.ofSeconds(5))
+                .register(registry);
+    }
+
+    private static long oldestPending(OrderFallbackCache fallbackCache, RedisSpillLog spillLog) {
+        return Math.max(fallbackCache.oldestAge().toMillis(), spillLog.oldestAge().toMillis());
+    }
+}
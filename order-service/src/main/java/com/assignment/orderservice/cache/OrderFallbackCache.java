@@ -0,0 +1,158 @@
+package com.assignment.orderservice.cache;
+
+import com.assignment.commonmodel.model.OrderEvent;
+import com.assignment.commonmodel.model.OrderItem;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.Scheduler;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+
+/**
+ * Orders that could not be written to Redis yet, keyed by their Redis key, until the flush job writes them.
+ *
+ * <p>Bounded by {@code app.cache.fallback.maxWeightBytes} using an estimate of each order's heap size, and by
+ * {@code app.cache.fallback.maxSize} by giving every entry a weight of at least maxWeightBytes / maxSize
+ * (Caffeine cannot combine both bounds directly). Entries expire {@code app.cache.ttl} after the last write on
+ * Caffeine's scheduler rather than on the next read. An order evicted for size or expired moves to the
+ * {@link RedisSpillLog}; with spilling disabled it is lost, which is logged and counted so an outage that outgrows
+ * the fallback is visible.
+ */
+@Component
+public class OrderFallbackCache implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderFallbackCache.class);
+    private static final int ORDER_OVERHEAD_BYTES = 128;
+    private static final int ITEM_OVERHEAD_BYTES = 64;
+
+    private final Cache<String, OrderEvent> cache;
+    private final RedisSpillLog spillLog;
+    private final LongAdder evicted = new LongAdder();
+    private final LongAdder expired = new LongAdder();
+
+    public OrderFallbackCache(
+            @Value("${app.cache.fallback.maxSize:100000}") long maxSize,
+            @Value("${app.cache.fallback.maxWeightBytes:67108864}") long maxWeightBytes,
+            @Value("${app.cache.ttl:PT20M}") Duration ttl,
+            RedisSpillLog spillLog) {
+        this.spillLog = spillLog;
+        int minWeight = (int) Math.max(1, maxWeightBytes / maxSize);
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxWeightBytes)
+                .weigher((String key, OrderEvent order) -> Math.max(minWeight, estimateBytes(key, order)))
+                .expireAfterWrite(ttl)
+                .scheduler(Scheduler.systemScheduler())
+                .executor(Runnable::run)
+                .removalListener(this::onRemoval)
+                .build();
+    }
+
+    public void put(String key, OrderEvent order) {
+        cache.put(key, order);
+    }
+
+    public OrderEvent get(String key) {
+        return cache.getIfPresent(key);
+    }
+
+    public void remove(String key) {
+        cache.invalidate(key);
+    }
+
+    /**
+     * Removes the entry once it reached Redis, unless it was replaced by a newer version in the meantime.
+     */
+    public void removeIfUnchanged(String key, OrderEvent order) {
+        cache.asMap().remove(key, order);
+    }
+
+    public void forEach(BiConsumer<String, OrderEvent> action) {
+        for (Map.Entry<String, OrderEvent> entry : cache.asMap().entrySet())
+            action.accept(entry.getKey(), entry.getValue());
+    }
+
+    public int size() {
+        return cache.asMap().size();
+    }
+
+    public boolean isEmpty() {
+        return cache.asMap().isEmpty();
+    }
+
+    public long weightedSize() {
+        return cache.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0)).orElse(0L);
+    }
+
+    public void cleanUp() {
+        cache.cleanUp();
+    }
+
+    /**
+     * Age of the oldest entry, {@link Duration#ZERO} when empty; the entries are kept in write order, so this is
+     * one lookup and not a scan.
+     */
+    public Duration oldestAge() {
+        return cache.policy().expireAfterWrite()
+                .flatMap(expiration -> expiration.oldest(1).keySet().stream().findFirst().flatMap(expiration::ageOf))
+                .orElse(Duration.ZERO);
+    }
+
+    public long evictedCount() {
+        return evicted.sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("orders.redis.fallback.bytes", this, OrderFallbackCache::weightedSize)
+                .description("Estimated heap used by orders waiting to be written to Redis")
+                .baseUnit("bytes")
+                .register(registry);
+        FunctionCounter.builder("orders.redis.fallback.dropped", evicted, LongAdder::sum)
+                .description("Orders dropped from the Redis fallback before they were written")
+                .tag("cause", "size")
+                .register(registry);
+        FunctionCounter.builder("orders.redis.fallback.dropped", expired, LongAdder::sum)
+                .tag("cause", "expired")
+                .register(registry);
+    }
+
+    /**
+     * An entry only leaves by size or expiry while it has not reached Redis yet (a written one is removed
+     * explicitly), so both move it to the spill log; it is lost only when that fails too.
+     */
+    private void onRemoval(String key, OrderEvent order, RemovalCause cause) {
+        if (cause != RemovalCause.SIZE && cause != RemovalCause.EXPIRED)
+            return;
+        String reason = cause == RemovalCause.SIZE ? "is full" : "entry expired";
+        if (spillLog.spill(key, order)) {
+            logger.debug("Redis fallback {}, order spilled to disk. key={}", reason, key);
+            return;
+        }
+        (cause == RemovalCause.SIZE ? evicted : expired).increment();
+        logger.error("Redis fallback {}, order dropped before it was written to Redis. key={}", reason, key);
+    }
+
+    private static int estimateBytes(String key, OrderEvent order) {
+        int bytes = ORDER_OVERHEAD_BYTES + 2 * key.length() + 2 * length(order.getOrderId()) + 2 * length(order.getCustomerName());
+        if (order.getItems() != null)
+            for (OrderItem item : order.getItems())
+                bytes += ITEM_OVERHEAD_BYTES + 2 * length(item.getProductId());
+        return bytes;
+    }
+
+    private static int length(String value) {
+        return value == null ? 0 : value.length();
+    }
+}
@@ -0,0 +1,58 @@
+package com.assignment.orderservice.cache;
+
+import com.assignment.commonmodel.model.InventoryStatus;
+import com.assignment.commonmodel.model.OrderEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * In-process cache of recently seen orders in front of Redis, bounded by size with Caffeine's
+ * frequency-aware (W-TinyLFU) eviction.
+ *
+ * <p>Only the instance that consumes an order's inventory result sees the status change, so a PENDING
+ * entry is kept just briefly; APPROVED and REJECTED are final and can be served for much longer.
+ * Entries are copied in and out because {@link OrderEvent} is mutable.
+ */
+@Component
+public class OrderNearCache {
+
+    private final Cache<String, OrderEvent> cache;
+
+    public OrderNearCache(
+            @Value("${app.nearCache.maxSize:10000}") long maxSize,
+            @Value("${app.nearCache.pendingTtl:PT1S}") Duration pendingTtl,
+            @Value("${app.nearCache.finalTtl:PT5M}") Duration finalTtl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(Expiry.<String, OrderEvent>writing((orderId, order) ->
+                        order.getStatus() == InventoryStatus.PENDING ? pendingTtl : finalTtl))
+                .build();
+    }
+
+    public OrderEvent get(String orderId) {
+        OrderEvent order = cache.getIfPresent(orderId);
+        return order == null ? null : copy(order);
+    }
+
+    public void put(OrderEvent order) {
+        cache.put(order.getOrderId(), copy(order));
+    }
+
+    public void updateStatus(String orderId, InventoryStatus status) {
+        cache.asMap().computeIfPresent(orderId, (id, order) ->
+                new OrderEvent(order.getOrderId(), order.getCustomerName(), order.getItems(), status));
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    private static OrderEvent copy(OrderEvent order) {
+        return new OrderEvent(order.getOrderId(), order.getCustomerName(), order.getItems(), order.getStatus());
+    }
+}
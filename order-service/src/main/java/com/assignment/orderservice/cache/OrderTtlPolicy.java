@@ -0,0 +1,29 @@
+package com.assignment.orderservice.cache;
+
+import com.assignment.commonmodel.model.InventoryStatus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * How long an {@code order:<id>} key lives in Redis. A PENDING order keeps the long TTL so it survives until the
+ * inventory result arrives; once APPROVED or REJECTED it only has to outlive the notification and status reads.
+ * Every write of an order key, including the in-place status update, sets the TTL for the status it writes.
+ */
+@Component
+public class OrderTtlPolicy {
+
+    private final Duration pending;
+    private final Duration completed;
+
+    public OrderTtlPolicy(@Value("${app.cache.redisTtl.pending:P7D}") Duration pending,
+                          @Value("${app.cache.redisTtl.completed:PT24H}") Duration completed) {
+        this.pending = pending;
+        this.completed = completed;
+    }
+
+    public Duration ttlFor(InventoryStatus status) {
+        return status == null || status == InventoryStatus.PENDING ? pending : completed;
+    }
+}
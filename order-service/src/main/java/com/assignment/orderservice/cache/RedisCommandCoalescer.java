@@ -0,0 +1,249 @@
+package com.assignment.orderservice.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Merges single-key GETs and SETs from concurrent callers into one pipeline. A single flusher thread takes the
+ * first queued command, keeps collecting for up to {@code app.redis.coalescing.window} or until
+ * {@code maxBatchSize} commands are queued, and sends them in one {@code executePipelined}, so N callers cost one
+ * write and one flush on the Lettuce connection instead of N. Each caller's future completes with its own reply;
+ * if the pipeline fails, every command in it fails with that exception. Against Redis Cluster a batch is sent as
+ * one pipeline per shard, in parallel (see {@link RedisShardRouter}).
+ *
+ * <p>While a flush is in flight the next batch builds up in the queue, so under load batches grow on their own and
+ * the window only matters when traffic is light. With {@code enabled=false}, or before {@link #start()}, commands
+ * run directly on the caller's thread.
+ */
+@Component
+public class RedisCommandCoalescer implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(RedisCommandCoalescer.class);
+
+    private final RedisTemplate<String, Object> redis;
+    private final RedisShardRouter shardRouter;
+    private final boolean enabled;
+    private final long windowNanos;
+    private final int maxBatchSize;
+    private final BlockingQueue<Command> queue = new LinkedBlockingQueue<>();
+    private final LongAdder flushes = new LongAdder();
+    private final LongAdder commands = new LongAdder();
+    private volatile boolean running;
+    private Thread flusher;
+
+    public RedisCommandCoalescer(RedisTemplate<String, Object> redis, RedisShardRouter shardRouter,
+                                 @Value("${app.redis.coalescing.enabled:true}") boolean enabled,
+                                 @Value("${app.redis.coalescing.window:PT0.0001S}") Duration window,
+                                 @Value("${app.redis.coalescing.maxBatchSize:128}") int maxBatchSize) {
+        this.redis = redis;
+        this.shardRouter = shardRouter;
+        this.enabled = enabled;
+        this.windowNanos = window.toNanos();
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled)
+            return;
+        running = true;
+        flusher = new Thread(this::run, "redis-coalescer");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (flusher == null)
+            return;
+        running = false;
+        flusher.interrupt();
+        flusher.join(TimeUnit.SECONDS.toMillis(5));
+        List<Command> late = new ArrayList<>();
+        queue.drainTo(late);
+        late.forEach(command -> flush(List.of(command)));
+    }
+
+    public boolean isCoalescing() {
+        return running;
+    }
+
+    public void set(String key, Object value, Duration ttl) {
+        if (!running) {
+            redis.opsForValue().set(key, value, ttl);
+            return;
+        }
+        await(setAsync(key, value, ttl));
+    }
+
+    public Object get(String key) {
+        if (!running)
+            return redis.opsForValue().get(key);
+        return await(getAsync(key));
+    }
+
+    public CompletableFuture<Object> setAsync(String key, Object value, Duration ttl) {
+        return submit(new Command(key, value, ttl, false));
+    }
+
+    /**
+     * Completes with whether the key was set, false when it already existed.
+     */
+    public CompletableFuture<Object> setIfAbsentAsync(String key, Object value, Duration ttl) {
+        return submit(new Command(key, value, ttl, true));
+    }
+
+    public CompletableFuture<Object> getAsync(String key) {
+        return submit(new Command(key, null, null));
+    }
+
+    private CompletableFuture<Object> submit(Command command) {
+        if (!running) {
+            flush(List.of(command));
+            return command.result;
+        }
+        queue.add(command);
+        return command.result;
+    }
+
+    private void run() {
+        List<Command> batch = new ArrayList<>(maxBatchSize);
+        while (running) {
+            try {
+                batch.add(queue.take());
+                queue.drainTo(batch, maxBatchSize - batch.size());
+                long deadline = System.nanoTime() + windowNanos;
+                long remaining;
+                while (batch.size() < maxBatchSize && (remaining = deadline - System.nanoTime()) > 0) {
+                    Command next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null)
+                        break;
+                    batch.add(next);
+                    queue.drainTo(batch, maxBatchSize - batch.size());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            }
+            flush(batch);
+            batch.clear();
+        }
+
+        // commands queued while stopping still get an answer
+        queue.drainTo(batch);
+        for (int from = 0; from < batch.size(); from += maxBatchSize)
+            flush(batch.subList(from, Math.min(batch.size(), from + maxBatchSize)));
+    }
+
+    private void flush(List<Command> batch) {
+        if (batch.isEmpty())
+            return;
+        commands.add(batch.size());
+        shardRouter.sendPerShard(batch, command -> command.key, shard -> {
+            flushShard(shard);
+            return true;
+        });
+    }
+
+    private void flushShard(List<Command> batch) {
+        flushes.increment();
+        try {
+            if (batch.size() == 1) {
+                Command command = batch.get(0);
+                command.result.complete(command.isRead()
+                        ? redis.opsForValue().get(command.key)
+                        : execute(redis, command));
+                return;
+            }
+            List<Object> replies = redis.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public <K, V> Object execute(RedisOperations<K, V> operations) {
+                    RedisOperations<String, Object> ops = (RedisOperations<String, Object>) operations;
+                    for (Command command : batch) {
+                        if (command.isRead())
+                            ops.opsForValue().get(command.key);
+                        else
+                            RedisCommandCoalescer.execute(ops, command);
+                    }
+                    return null;
+                }
+            });
+            for (int i = 0; i < batch.size(); i++)
+                batch.get(i).result.complete(i < replies.size() ? replies.get(i) : null);
+        } catch (RuntimeException e) {
+            logger.debug("Coalesced Redis flush of {} commands failed: {}", batch.size(), e.getClass().getSimpleName());
+            batch.forEach(command -> command.result.completeExceptionally(e));
+        }
+    }
+
+    private static Object execute(RedisOperations<String, Object> ops, Command command) {
+        if (command.ifAbsent)
+            return ops.opsForValue().setIfAbsent(command.key, command.value, command.ttl);
+        ops.opsForValue().set(command.key, command.value, command.ttl);
+        return Boolean.TRUE;
+    }
+
+    private static Object await(CompletableFuture<Object> result) {
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause)
+                throw cause;
+            throw e;
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("redis.coalescer.flushes", flushes, LongAdder::sum)
+                .description("Round trips sent by the Redis command coalescer")
+                .register(registry);
+        FunctionCounter.builder("redis.coalescer.commands", commands, LongAdder::sum)
+                .description("Commands sent by the Redis command coalescer")
+                .register(registry);
+    }
+
+    private static final class Command {
+        final String key;
+        final Object value;
+        final Duration ttl;
+        final boolean ifAbsent;
+        final CompletableFuture<Object> result = new CompletableFuture<>();
+
+        Command(String key, Object value, Duration ttl) {
+            this(key, value, ttl, false);
+        }
+
+        Command(String key, Object value, Duration ttl, boolean ifAbsent) {
+            this.key = key;
+            this.value = value;
+            this.ttl = ttl;
+            this.ifAbsent = ifAbsent;
+        }
+
+        boolean isRead() {
+            return ttl == null;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.assignment.orderservice.cache;
+
+import com.assignment.commonmodel.constants.Constants;
+import com.assignment.commonmodel.model.InventoryStatus;
+import com.assignment.commonmodel.model.OrderEvent;
+import com.assignment.commonmodel.resilience.CircuitBreaker;
+import com.assignment.orderservice.concurrency.ConcurrencyGuard;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.RedisServerCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Estimates how many {@code order:<id>} keys Redis holds per status and how much memory they take, for sizing.
+ * Every {@code app.cache.keyspace.sampleInterval} it draws {@code sampleSize} RANDOMKEYs (uniform over the whole
+ * database), reads the sampled order values and scales the per-status share up by DBSIZE. Bytes are the key and
+ * value lengths plus Redis' per-key overhead, so they are an estimate of {@code used_memory}, not an exact figure.
+ * Two pipelined round trips per sample; nothing is scanned.
+ */
+@Component
+@RequiredArgsConstructor
+public class RedisKeyspaceReporter implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(RedisKeyspaceReporter.class);
+
+    /** dict entry, key and value objects, sds headers and the expires entry of a string key with a TTL. */
+    private static final int PER_KEY_OVERHEAD_BYTES = 80;
+
+    private final RedisTemplate<String, Object> redis;
+    private final ConcurrencyGuard redisGuard;
+    private final CircuitBreaker redisCircuitBreaker;
+    private final Map<InventoryStatus, AtomicLong> keys = perStatus();
+    private final Map<InventoryStatus, AtomicLong> bytes = perStatus();
+
+    @Value("${app.cache.keyspace.sampleSize:500}")
+    private int sampleSize = 500;
+
+    @Scheduled(fixedDelayString = "${app.cache.keyspace.sampleInterval:60000}",
+            initialDelayString = "${app.cache.keyspace.sampleInterval:60000}")
+    public void sample() {
+        if (redisCircuitBreaker.state() != CircuitBreaker.State.CLOSED)
+            return;
+        try {
+            redisGuard.run(this::sampleKeyspace);
+        } catch (RuntimeException e) {
+            logger.debug("Redis keyspace sample failed: {}", e.getClass().getSimpleName());
+        }
+    }
+
+    private void sampleKeyspace() {
+        Long dbSize = redis.execute((RedisCallback<Long>) RedisServerCommands::dbSize);
+        List<Object> sampledKeys = dbSize == null || dbSize == 0 ? List.of()
+                : redis.executePipelined((RedisCallback<Object>) connection -> {
+                    for (int i = 0; i < sampleSize; i++)
+                        connection.keyCommands().randomKey();
+                    return null;
+                }, StringRedisSerializer.UTF_8);
+
+        List<byte[]> orderKeys = sampledKeys.stream()
+                .filter(key -> key instanceof String name && name.startsWith(Constants.ORDER_PREFIX))
+                .map(key -> ((String) key).getBytes(StandardCharsets.UTF_8))
+                .toList();
+        List<Object> values = orderKeys.isEmpty() ? List.of()
+                : redis.executePipelined((RedisCallback<Object>) connection -> {
+                    orderKeys.forEach(connection.stringCommands()::get);
+                    return null;
+                }, RedisSerializer.byteArray());
+
+        Map<InventoryStatus, long[]> sampled = new EnumMap<>(InventoryStatus.class);
+        for (int i = 0; i < values.size(); i++) {
+            if (!(values.get(i) instanceof byte[] value)
+                    || !(redis.getValueSerializer().deserialize(value) instanceof OrderEvent order)
+                    || order.getStatus() == null)
+                continue;
+            long[] countAndBytes = sampled.computeIfAbsent(order.getStatus(), status -> new long[2]);
+            countAndBytes[0]++;
+            countAndBytes[1] += orderKeys.get(i).length + value.length + PER_KEY_OVERHEAD_BYTES;
+        }
+
+        long drawn = sampledKeys.stream().filter(key -> key != null).count();
+        for (InventoryStatus status : InventoryStatus.values()) {
+            long[] countAndBytes = sampled.getOrDefault(status, new long[2]);
+            long estimatedKeys = drawn == 0 ? 0 : Math.round((double) dbSize * countAndBytes[0] / drawn);
+            keys.get(status).set(estimatedKeys);
+            bytes.get(status).set(countAndBytes[0] == 0 ? 0 : estimatedKeys * countAndBytes[1] / countAndBytes[0]);
+        }
+        logger.debug("Redis keyspace sample: dbSize={}, sampled={}, orderKeys={}, bytes={}", dbSize, drawn, keys, bytes);
+    }
+
+    public long estimatedKeys(InventoryStatus status) {
+        return keys.get(status).get();
+    }
+
+    public long estimatedBytes(InventoryStatus status) {
+        return bytes.get(status).get();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (InventoryStatus status : InventoryStatus.values()) {
+            Gauge.builder("orders.redis.keys", keys.get(status), AtomicLong::get)
+                    .description("Estimated order keys in Redis (sampled)")
+                    .tag("status", status.name())
+                    .register(registry);
+            Gauge.builder("orders.redis.bytes", bytes.get(status), AtomicLong::get)
+                    .description("Estimated Redis memory held by order keys (sampled)")
+                    .baseUnit("bytes")
+                    .tag("status", status.name())
+                    .register(registry);
+        }
+    }
+
+    private static Map<InventoryStatus, AtomicLong> perStatus() {
+        Map<InventoryStatus, AtomicLong> byStatus = new EnumMap<>(InventoryStatus.class);
+        for (InventoryStatus status : InventoryStatus.values())
+            byStatus.put(status, new AtomicLong());
+        return byStatus;
+    }
+}
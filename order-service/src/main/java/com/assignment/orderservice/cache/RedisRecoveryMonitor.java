@@ -0,0 +1,66 @@
+package com.assignment.orderservice.cache;
+
+import com.assignment.commonmodel.resilience.CircuitBreaker;
+import com.assignment.orderservice.services.implementation.OrderCacheServiceImpl;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+
+/**
+ * Closes the Redis circuit without waiting for order traffic: while it is open, a PING is sent as the
+ * half-open probe every {@code app.redis.breaker.probeInterval}. As soon as the circuit closes the pending
+ * orders are flushed, instead of on the next {@code app.cache.redisRetryInterval} tick.
+ */
+@Component
+@RequiredArgsConstructor
+public class RedisRecoveryMonitor implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(RedisRecoveryMonitor.class);
+    private final CircuitBreaker redisCircuitBreaker;
+    private final RedisConnectionFactory redisConnectionFactory;
+    private final OrderCacheServiceImpl orderCacheService;
+    private final TaskScheduler taskScheduler;
+
+    @PostConstruct
+    void flushOnClose() {
+        redisCircuitBreaker.onClose(() -> {
+            logger.info("Redis is back, flushing {} pending orders", orderCacheService.pendingCount());
+            taskScheduler.schedule(orderCacheService::flushPendingToRedis, Instant.now());
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${app.redis.breaker.probeInterval:1000}")
+    public void probe() {
+        if (redisCircuitBreaker.state() == CircuitBreaker.State.CLOSED)
+            return;
+        CircuitBreaker.Permit permit = redisCircuitBreaker.tryAcquire();
+        if (permit == null)
+            return;
+
+        try (RedisConnection connection = redisConnectionFactory.getConnection()) {
+            connection.ping();
+            permit.onSuccess();
+        } catch (RuntimeException e) {
+            logger.debug("Redis probe failed: {}", e.getClass().getSimpleName());
+            permit.onFailure();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("redis.circuit.state", redisCircuitBreaker, breaker -> breaker.state().ordinal())
+                .description("Redis circuit breaker state: 0 closed, 1 open, 2 half-open")
+                .register(registry);
+    }
+}
@@ -0,0 +1,108 @@
+package com.assignment.orderservice.cache;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.connection.RedisClusterConnection;
+import org.springframework.data.redis.connection.RedisClusterNode;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Splits multi-key work by the Redis Cluster master that owns each key, so a pipeline becomes one pipeline per
+ * shard, sent in parallel. A slow or failed shard then only holds back its own keys, and each master gets a full
+ * batch instead of a slice interleaved with every other node's. Against a single Redis everything is one shard
+ * and runs on the caller's thread.
+ *
+ * <p>The key-to-master map is Lettuce's cached cluster topology, refreshed on MOVED/ASK and by
+ * {@code spring.data.redis.lettuce.cluster.refresh.*}; a key that moves while a pipeline is in flight is still
+ * redirected by Lettuce.
+ */
+@Component
+public class RedisShardRouter {
+
+    private static final Logger logger = LoggerFactory.getLogger(RedisShardRouter.class);
+
+    private final RedisConnectionFactory connectionFactory;
+    private final boolean clustered;
+    private final ExecutorService executor;
+
+    public RedisShardRouter(RedisConnectionFactory connectionFactory) {
+        this.connectionFactory = connectionFactory;
+        this.clustered = connectionFactory instanceof LettuceConnectionFactory lettuce && lettuce.isClusterAware();
+        AtomicInteger threads = new AtomicInteger();
+        this.executor = clustered
+                ? Executors.newCachedThreadPool(task -> {
+                    Thread thread = new Thread(task, "redis-shard-" + threads.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                })
+                : null;
+    }
+
+    @PreDestroy
+    void close() {
+        if (executor != null)
+            executor.shutdown();
+    }
+
+    public boolean isClustered() {
+        return clustered;
+    }
+
+    public <T> List<List<T>> split(List<T> items, Function<T, String> keyOf) {
+        if (!clustered || items.size() < 2)
+            return List.of(items);
+        Map<String, List<T>> byMaster = new LinkedHashMap<>();
+        try (RedisClusterConnection connection = connectionFactory.getClusterConnection()) {
+            for (T item : items) {
+                RedisClusterNode master = connection.clusterGetNodeForKey(keyOf.apply(item).getBytes(StandardCharsets.UTF_8));
+                byMaster.computeIfAbsent(master.getId() != null ? master.getId() : master.asString(), id -> new ArrayList<>())
+                        .add(item);
+            }
+        }
+        return new ArrayList<>(byMaster.values());
+    }
+
+    /**
+     * Sends every shard's items with {@code send}, the shards in parallel, and returns the items of the shards
+     * whose send returned {@code false} or threw.
+     */
+    public <T> List<T> sendPerShard(List<T> items, Function<T, String> keyOf, Predicate<List<T>> send) {
+        List<List<T>> shards = split(items, keyOf);
+        if (shards.size() == 1)
+            return send(shards.get(0), send) ? List.of() : shards.get(0);
+
+        List<CompletableFuture<Boolean>> sent = new ArrayList<>(shards.size());
+        for (List<T> shard : shards)
+            sent.add(CompletableFuture.supplyAsync(() -> send(shard, send), executor));
+
+        List<T> failed = new ArrayList<>();
+        for (int i = 0; i < shards.size(); i++)
+            if (!sent.get(i).join())
+                failed.addAll(shards.get(i));
+        return failed;
+    }
+
+    private static <T> boolean send(List<T> shard, Predicate<List<T>> send) {
+        try {
+            return send.test(shard);
+        } catch (RuntimeException e) {
+            logger.error("Redis shard write of {} keys failed: {}", shard.size(), e.getClass().getSimpleName());
+            return false;
+        }
+    }
+}
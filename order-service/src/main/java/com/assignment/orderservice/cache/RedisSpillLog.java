@@ -0,0 +1,250 @@
+package com.assignment.orderservice.cache;
+
+import com.assignment.commonmodel.constants.Constants;
+import com.assignment.commonmodel.model.InventoryStatus;
+import com.assignment.commonmodel.model.OrderEvent;
+import com.assignment.commonmodel.resilience.CircuitBreaker;
+import com.assignment.orderservice.concurrency.ConcurrencyGuard;
+import com.assignment.orderservice.outbox.SegmentedJournal;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Disk tier of the Redis fallback: orders pushed out of {@link OrderFallbackCache} by its weight limit are
+ * appended to a memory-mapped {@link SegmentedJournal} instead of being dropped, and replayed to Redis in
+ * append order once it is reachable again, also after a restart.
+ *
+ * <p>Only the orderId and the record position stay on the heap. Appends are not forced one by one;
+ * the log is forced every {@code app.cache.spill.syncInterval} and before it is replayed; single orders are read
+ * from the mapped segments without forcing.
+ * A replayed PENDING order is written with SET NX, so it never overwrites a status that reached Redis
+ * after the order was spilled.
+ */
+@Component
+@RequiredArgsConstructor
+public class RedisSpillLog {
+
+    private static final Logger logger = LoggerFactory.getLogger(RedisSpillLog.class);
+    private final ObjectMapper objectMapper;
+    private final RedisTemplate<String, Object> redis;
+    private final ConcurrencyGuard redisGuard;
+    private final CircuitBreaker redisCircuitBreaker;
+    private final OrderTtlPolicy ttlPolicy;
+    private final RedisShardRouter shardRouter;
+    private final Map<String, Long> spilled = new ConcurrentHashMap<>();
+    private final AtomicLong oldestSpilledAt = new AtomicLong();
+
+    @Value("${app.cache.spill.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.cache.spill.directory:./data/redis-spill}")
+    private String directory;
+
+    @Value("${app.cache.spill.segmentSize:67108864}")
+    private int segmentSize;
+
+    @Value("${app.cache.spill.replayBatchSize:500}")
+    private int replayBatchSize;
+
+    private SegmentedJournal journal;
+
+    @PostConstruct
+    void open() throws IOException {
+        if (!enabled)
+            return;
+        journal = new SegmentedJournal(Path.of(directory), segmentSize);
+
+        long position = journal.checkpoint();
+        List<SegmentedJournal.JournalRecord> records;
+        while (!(records = journal.read(position, replayBatchSize)).isEmpty()) {
+            for (SegmentedJournal.JournalRecord record : records)
+                index(record);
+            position = records.get(records.size() - 1).nextPosition();
+        }
+        if (!spilled.isEmpty())
+            oldestSpilledAt.set(System.currentTimeMillis());
+        logger.info("Redis spill log opened at {}, {} orders waiting for Redis", directory, spilled.size());
+    }
+
+    @PreDestroy
+    void close() {
+        if (journal != null)
+            journal.close();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int size() {
+        return spilled.size();
+    }
+
+    /**
+     * Appends the order to the log; returns false when it could not be written.
+     */
+    public boolean spill(String key, OrderEvent order) {
+        if (!enabled)
+            return false;
+        try {
+            byte[] payload = objectMapper.writeValueAsBytes(order);
+            long end = journal.append(payload);
+            spilled.put(key, end - SegmentedJournal.recordSize(payload.length));
+            oldestSpilledAt.compareAndSet(0, System.currentTimeMillis());
+            return true;
+        } catch (JsonProcessingException | RuntimeException e) {
+            logger.error("Failed to spill order to disk. key={}", key, e);
+            return false;
+        }
+    }
+
+    /**
+     * Time since the first order spilled after the log was last empty (or since startup, for orders spilled by a
+     * previous run). Replay drains oldest first, so while it is in progress this is an upper bound.
+     */
+    public Duration oldestAge() {
+        long since = oldestSpilledAt.get();
+        if (since == 0 || spilled.isEmpty())
+            return Duration.ZERO;
+        return Duration.ofMillis(System.currentTimeMillis() - since);
+    }
+
+    /**
+     * Reads a spilled order from the mapped log without forcing it. The position may be stale when the order was
+     * replayed meanwhile, so a record of another order counts as not found.
+     */
+    public OrderEvent get(String key) {
+        Long position = spilled.get(key);
+        if (position == null)
+            return null;
+        try {
+            SegmentedJournal.JournalRecord record = journal.readAt(position);
+            OrderEvent order = record == null ? null : decode(record);
+            return order != null && key.equals(buildKey(order.getOrderId())) ? order : null;
+        } catch (RuntimeException e) {
+            // replayed and deleted in the meantime
+            logger.debug("Spilled order no longer readable. key={}", key);
+            return null;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.cache.spill.syncInterval:1000}")
+    public void sync() {
+        if (enabled && !spilled.isEmpty())
+            journal.sync(journal.appendedPosition());
+    }
+
+    /**
+     * Writes spilled orders to Redis in pipelined batches, oldest first. Returns false if Redis failed and
+     * orders are left in the log.
+     */
+    public boolean replay() {
+        if (!enabled || spilled.isEmpty())
+            return true;
+
+        journal.sync(journal.appendedPosition());
+        int replayed = 0;
+        List<SegmentedJournal.JournalRecord> records;
+        while (!(records = journal.read(journal.checkpoint(), replayBatchSize)).isEmpty()) {
+            List<OrderEvent> orders = records.stream().map(this::decode).toList();
+            if (!writeToRedis(orders)) {
+                logger.warn("Redis spill replay stopped after {} orders, {} still on disk", replayed, spilled.size());
+                return false;
+            }
+            for (int i = 0; i < records.size(); i++)
+                if (orders.get(i) != null)
+                    spilled.remove(buildKey(orders.get(i).getOrderId()), startOf(records.get(i)));
+            journal.commit(records.get(records.size() - 1).nextPosition());
+            replayed += records.size();
+        }
+        if (spilled.isEmpty())
+            oldestSpilledAt.set(0);
+        logger.info("Redis spill replay wrote {} orders, {} still on disk", replayed, spilled.size());
+        return true;
+    }
+
+    /**
+     * All or nothing: against Redis Cluster every shard gets its own pipeline, in parallel, and the batch counts
+     * as written only when all of them succeeded (rewriting it is safe, see the class comment).
+     */
+    private boolean writeToRedis(List<OrderEvent> orders) {
+        List<OrderEvent> present = orders.stream().filter(Objects::nonNull).toList();
+        return shardRouter.sendPerShard(present, order -> buildKey(order.getOrderId()), this::writeShard).isEmpty();
+    }
+
+    private boolean writeShard(List<OrderEvent> orders) {
+        CircuitBreaker.Permit permit = redisCircuitBreaker.tryAcquire();
+        if (permit == null)
+            return false;
+        try {
+            redisGuard.run(() -> redis.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public <K, V> Object execute(RedisOperations<K, V> operations) {
+                    RedisOperations<String, Object> ops = (RedisOperations<String, Object>) operations;
+                    for (OrderEvent order : orders) {
+                        String key = buildKey(order.getOrderId());
+                        if (order.getStatus() == InventoryStatus.PENDING)
+                            ops.opsForValue().setIfAbsent(key, order, ttlPolicy.ttlFor(order.getStatus()));
+                        else
+                            ops.opsForValue().set(key, order, ttlPolicy.ttlFor(order.getStatus()));
+                    }
+                    return null;
+                }
+            }));
+            permit.onSuccess();
+            return true;
+        } catch (RuntimeException e) {
+            if (e instanceof DataAccessException)
+                permit.onFailure();
+            logger.error("Redis spill replay failed: {}", e.getClass().getSimpleName());
+            return false;
+        } finally {
+            permit.release();
+        }
+    }
+
+    private void index(SegmentedJournal.JournalRecord record) {
+        OrderEvent order = decode(record);
+        if (order != null)
+            spilled.put(buildKey(order.getOrderId()), startOf(record));
+    }
+
+    private static long startOf(SegmentedJournal.JournalRecord record) {
+        return record.nextPosition() - SegmentedJournal.recordSize(record.payload().length);
+    }
+
+    private OrderEvent decode(SegmentedJournal.JournalRecord record) {
+        try {
+            return objectMapper.readValue(record.payload(), OrderEvent.class);
+        } catch (IOException e) {
+            logger.error("Skipping unreadable spilled order at position {}", startOf(record), e);
+            return null;
+        }
+    }
+
+    private static String buildKey(String orderId) {
+        return Constants.ORDER_PREFIX + orderId;
+    }
+}
@@ -0,0 +1,140 @@
+package com.assignment.orderservice.concurrency;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+
+/**
+ * Admission limit for incoming work that adapts to how the backends behave, following TCP Vegas:
+ * the ratio between the lowest latency seen recently and the latency of a finished call estimates how many
+ * calls are queued somewhere downstream. The limit grows while that queue is short, shrinks when it grows,
+ * and drops by a tenth when a call fails from overload.
+ *
+ * <p>Work is also refused while the backlog reported by {@code backlog} is at {@code maxBacklog}, e.g. orders
+ * still waiting for Redis, because that queue does not show up in latency.
+ * The minimum latency is sampled again every {@code minRttWindow} so the limiter follows changes in the baseline.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private static final double BACKOFF_RATIO = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final IntSupplier backlog;
+    private final int maxBacklog;
+    private final long minRttWindowNanos;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder rejectedByLimit = new LongAdder();
+    private final LongAdder rejectedByBacklog = new LongAdder();
+    private volatile double limit;
+    private long minRttNanos = Long.MAX_VALUE;
+    private long minRttSampledAt = System.nanoTime();
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit,
+                                      IntSupplier backlog, int maxBacklog, Duration minRttWindow) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        this.backlog = backlog;
+        this.maxBacklog = maxBacklog;
+        this.minRttWindowNanos = minRttWindow.toNanos();
+    }
+
+    /**
+     * Returns a permit that must be released once the call finished, or null when the call should be rejected.
+     */
+    public Permit tryAcquire() {
+        if (backlog.getAsInt() >= maxBacklog) {
+            rejectedByBacklog.increment();
+            return null;
+        }
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit) {
+                rejectedByLimit.increment();
+                return null;
+            }
+            if (inFlight.compareAndSet(current, current + 1))
+                return new Permit(System.nanoTime());
+        }
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public long getRejectedByLimit() {
+        return rejectedByLimit.sum();
+    }
+
+    public long getRejectedByBacklog() {
+        return rejectedByBacklog.sum();
+    }
+
+    private synchronized void onSample(long rttNanos, int inFlightAtStart, boolean dropped) {
+        long now = System.nanoTime();
+        if (now - minRttSampledAt > minRttWindowNanos) {
+            minRttNanos = rttNanos;
+            minRttSampledAt = now;
+        } else {
+            minRttNanos = Math.min(minRttNanos, rttNanos);
+        }
+
+        double current = limit;
+        double next;
+        if (dropped) {
+            next = current * BACKOFF_RATIO;
+        } else {
+            double queue = current * (1 - (double) minRttNanos / Math.max(rttNanos, 1));
+            double step = Math.max(1, Math.log10(current));
+            if (queue > 6 * step)
+                next = current - step;
+            else if (queue < 3 * step && inFlightAtStart * 2 >= current)
+                // only grow a limit that is actually being used
+                next = current + step;
+            else
+                return;
+        }
+        limit = Math.max(minLimit, Math.min(maxLimit, next));
+    }
+
+    public final class Permit {
+        private final long startNanos;
+        private final int inFlightAtStart;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(long startNanos) {
+            this.startNanos = startNanos;
+            this.inFlightAtStart = inFlight.get();
+        }
+
+        public void success() {
+            release(false);
+        }
+
+        public void dropped() {
+            release(true);
+        }
+
+        /**
+         * Releases without a sample, for calls that tell nothing about the backends (e.g. a cancelled request).
+         */
+        public void ignore() {
+            if (released.compareAndSet(false, true))
+                inFlight.decrementAndGet();
+        }
+
+        private void release(boolean dropped) {
+            if (!released.compareAndSet(false, true))
+                return;
+            inFlight.decrementAndGet();
+            onSample(System.nanoTime() - startNanos, inFlightAtStart, dropped);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.assignment.orderservice.concurrency;
+
+import com.assignment.orderservice.errorhandling.exceptions.ConcurrencyLimitException;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Caps the number of callers that may use a backend client at the same time.
+ * With virtual threads the request pool no longer bounds this for us, so without the cap
+ * thousands of requests would pile onto a single Redis or Kafka connection at once.
+ */
+public class ConcurrencyGuard {
+
+    private final String name;
+    private final Semaphore permits;
+    private final long acquireTimeoutNanos;
+
+    public ConcurrencyGuard(String name, int maxInFlight, Duration acquireTimeout) {
+        this.name = name;
+        this.permits = new Semaphore(maxInFlight);
+        this.acquireTimeoutNanos = acquireTimeout.toNanos();
+    }
+
+    public void run(Runnable operation) {
+        acquire();
+        try {
+            operation.run();
+        } finally {
+            permits.release();
+        }
+    }
+
+    public <T> T call(Supplier<T> operation) {
+        acquire();
+        try {
+            return operation.get();
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Holds the permit until the returned future completes, so the cap covers the whole send and not only the hand-off.
+     */
+    public <T> CompletableFuture<T> callAsync(Supplier<CompletableFuture<T>> operation) {
+        acquire();
+        CompletableFuture<T> future;
+        try {
+            future = operation.get();
+        } catch (RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+        return future.whenComplete((result, exception) -> permits.release());
+    }
+
+    /**
+     * Non-blocking variant for the reactive path: when no permit is free the caller is rejected right away
+     * instead of parking, which is how back-pressure reaches the HTTP layer.
+     */
+    public <T> Mono<T> callReactive(Supplier<Mono<T>> operation) {
+        return Mono.defer(() -> {
+            if (!permits.tryAcquire())
+                return Mono.error(new ConcurrencyLimitException("Concurrency limit reached for " + name));
+            return operation.get().doFinally(signal -> permits.release());
+        });
+    }
+
+    public int availablePermits() {
+        return permits.availablePermits();
+    }
+
+    private void acquire() {
+        try {
+            if (!permits.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS))
+                throw new ConcurrencyLimitException("Concurrency limit reached for " + name);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConcurrencyLimitException("Interrupted while waiting for " + name, e);
+        }
+    }
+}
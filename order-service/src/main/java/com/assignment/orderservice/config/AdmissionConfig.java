@@ -0,0 +1,47 @@
+package com.assignment.orderservice.config;
+
+import com.assignment.orderservice.concurrency.AdaptiveConcurrencyLimiter;
+import com.assignment.orderservice.services.implementation.OrderCacheServiceImpl;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class AdmissionConfig {
+
+    @Bean
+    public AdaptiveConcurrencyLimiter orderAdmissionLimiter(
+            @Value("${app.admission.initialLimit:200}") int initialLimit,
+            @Value("${app.admission.minLimit:20}") int minLimit,
+            @Value("${app.admission.maxLimit:2000}") int maxLimit,
+            @Value("${app.admission.maxRedisBacklog:1000000}") int maxRedisBacklog,
+            @Value("${app.admission.minRttWindow:PT10S}") Duration minRttWindow,
+            OrderCacheServiceImpl orderCacheService,
+            MeterRegistry meterRegistry) {
+
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(initialLimit, minLimit, maxLimit,
+                orderCacheService::pendingCount, maxRedisBacklog, minRttWindow);
+
+        Gauge.builder("orders.admission.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Current number of order requests admitted at the same time")
+                .register(meterRegistry);
+        Gauge.builder("orders.admission.in.flight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                .register(meterRegistry);
+        FunctionCounter.builder("orders.admission.rejected", limiter, AdaptiveConcurrencyLimiter::getRejectedByLimit)
+                .tag("reason", "limit")
+                .register(meterRegistry);
+        FunctionCounter.builder("orders.admission.rejected", limiter, AdaptiveConcurrencyLimiter::getRejectedByBacklog)
+                .tag("reason", "redis_backlog")
+                .register(meterRegistry);
+        Gauge.builder("orders.redis.pending", orderCacheService, OrderCacheServiceImpl::pendingCount)
+                .description("Orders waiting in the local fallback to be written to Redis")
+                .register(meterRegistry);
+
+        return limiter;
+    }
+}
@@ -0,0 +1,26 @@
+package com.assignment.orderservice.config;
+
+import com.assignment.orderservice.concurrency.ConcurrencyGuard;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class ConcurrencyConfig {
+
+    @Bean
+    public ConcurrencyGuard redisGuard(
+            @Value("${app.concurrency.redis.maxInFlight:256}") int maxInFlight,
+            @Value("${app.concurrency.redis.acquireTimeout:PT2S}") Duration acquireTimeout) {
+        return new ConcurrencyGuard("redis", maxInFlight, acquireTimeout);
+    }
+
+    @Bean
+    public ConcurrencyGuard kafkaGuard(
+            @Value("${app.concurrency.kafka.maxInFlight:1024}") int maxInFlight,
+            @Value("${app.concurrency.kafka.acquireTimeout:PT2S}") Duration acquireTimeout) {
+        return new ConcurrencyGuard("kafka", maxInFlight, acquireTimeout);
+    }
+}
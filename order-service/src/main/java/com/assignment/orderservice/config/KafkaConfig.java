@@ -1,22 +1,74 @@
 package com.assignment.orderservice.config;
 
+import com.assignment.commonmodel.kafka.ProducerProfile;
+import com.assignment.orderservice.errorhandling.exceptions.OrderNotStoredException;
 import org.apache.kafka.clients.admin.NewTopic;
+import org.springframework.boot.autoconfigure.kafka.DefaultKafkaProducerFactoryCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.util.backoff.BackOff;
+import org.springframework.util.backoff.ExponentialBackOff;
 import org.springframework.beans.factory.annotation.Value;
 
+import java.time.Duration;
+
 @Configuration
 public class KafkaConfig {
     @Value("${app.topics.orders}")
     private String orderTopic;
 
+    @Value("${app.topics.ordersPartitions:1}")
+    private int orderTopicPartitions;
+
     @Bean
     public NewTopic ordersTopic() {
         return TopicBuilder.name(orderTopic)
-                .partitions(1)
+                .partitions(orderTopicPartitions)
                 .replicas(1)
                 .build();
     }
 
+    /**
+     * Applies the producer profile on top of spring.kafka.producer.*; its four settings win over the same keys in yml.
+     */
+    @Bean
+    public DefaultKafkaProducerFactoryCustomizer producerProfileCustomizer(
+            @Value("${app.kafka.producerProfile:low-latency}") String producerProfile) {
+        ProducerProfile profile = ProducerProfile.from(producerProfile);
+        return producerFactory -> producerFactory.updateConfigs(profile.properties());
+    }
+
+    /**
+     * An inventory result (or, in batch mode, a poll) whose status update Redis did not acknowledge is retried with
+     * growing pauses for up to app.kafka.statusRetry.maxRetryTime, so a Redis outage does not lose the result, before
+     * it is logged and skipped like the default handler does after its retries. A result that arrived before its
+     * order was stored only gets app.kafka.statusRetry.notStoredMaxRetryTime, so an order that never got stored does
+     * not hold up its partition for long.
+     */
+    @Bean
+    public DefaultErrorHandler statusUpdateErrorHandler(
+            @Value("${app.kafka.statusRetry.maxRetryTime:PT10M}") Duration maxRetryTime,
+            @Value("${app.kafka.statusRetry.notStoredMaxRetryTime:PT1M}") Duration notStoredMaxRetryTime) {
+        DefaultErrorHandler errorHandler = new DefaultErrorHandler(backOff(500, 30_000, maxRetryTime));
+        BackOff notStoredBackOff = backOff(200, 5_000, notStoredMaxRetryTime);
+        errorHandler.setBackOffFunction((record, exception) ->
+                isOrderNotStored(exception) ? notStoredBackOff : null);
+        return errorHandler;
+    }
+
+    private static ExponentialBackOff backOff(long initialInterval, long maxInterval, Duration maxElapsedTime) {
+        ExponentialBackOff backOff = new ExponentialBackOff(initialInterval, 2);
+        backOff.setMaxInterval(maxInterval);
+        backOff.setMaxElapsedTime(maxElapsedTime.toMillis());
+        return backOff;
+    }
+
+    private static boolean isOrderNotStored(Throwable exception) {
+        for (Throwable cause = exception; cause != null; cause = cause.getCause())
+            if (cause instanceof OrderNotStoredException)
+                return true;
+        return false;
+    }
 }
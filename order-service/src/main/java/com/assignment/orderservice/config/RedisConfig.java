@@ -1,21 +1,33 @@
 package com.assignment.orderservice.config;
 
+import com.assignment.commonmodel.codec.OrderEventRedisSerializer;
+import com.assignment.commonmodel.resilience.CircuitBreaker;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
 import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
+import java.time.Duration;
+
 @Configuration
 public class RedisConfig {
 
     @Bean
-    public RedisTemplate<String, Object> redisTemplate(LettuceConnectionFactory cf) {
+    public OrderEventRedisSerializer redisValueSerializer(
+            @Value("${app.redis.values.binary:true}") boolean writeBinary,
+            @Value("${app.redis.values.compressionThreshold:512}") int compressionThreshold) {
+        return new OrderEventRedisSerializer(writeBinary, compressionThreshold);
+    }
+
+    @Bean
+    public RedisTemplate<String, Object> redisTemplate(LettuceConnectionFactory cf, OrderEventRedisSerializer valSer) {
         RedisTemplate<String, Object> t = new RedisTemplate<>();
         t.setConnectionFactory(cf);
         var keySer = new StringRedisSerializer();
-        var valSer = new GenericJackson2JsonRedisSerializer();
         t.setKeySerializer(keySer);
         t.setHashKeySerializer(keySer);
         t.setValueSerializer(valSer);
@@ -23,4 +35,23 @@ public class RedisConfig {
         return t;
     }
 
+    @Bean
+    public ReactiveRedisTemplate<String, Object> reactiveRedisTemplate(LettuceConnectionFactory cf, OrderEventRedisSerializer valSer) {
+        var keySer = new StringRedisSerializer();
+        RedisSerializationContext<String, Object> context = RedisSerializationContext
+                .<String, Object>newSerializationContext(keySer)
+                .value(valSer)
+                .hashKey(keySer)
+                .hashValue(valSer)
+                .build();
+        return new ReactiveRedisTemplate<>(cf, context);
+    }
+
+    @Bean
+    public CircuitBreaker redisCircuitBreaker(
+            @Value("${app.redis.breaker.failureThreshold:3}") int failureThreshold,
+            @Value("${app.redis.breaker.openDuration:PT5S}") Duration openDuration) {
+        return new CircuitBreaker("redis", failureThreshold, openDuration);
+    }
+
 }
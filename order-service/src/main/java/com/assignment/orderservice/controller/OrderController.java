@@ -1,23 +1,41 @@
 package com.assignment.orderservice.controller;
 
 
+import com.assignment.commonmodel.constants.Messages;
 import com.assignment.commonmodel.model.InventoryStatus;
+import com.assignment.orderservice.concurrency.AdaptiveConcurrencyLimiter;
+import com.assignment.orderservice.errorhandling.exceptions.ConcurrencyLimitException;
+import com.assignment.orderservice.errorhandling.exceptions.KafkaPublishException;
+import com.assignment.orderservice.errorhandling.exceptions.OrderInProgressException;
+import com.assignment.orderservice.model.OrderBatchRequest;
 import com.assignment.orderservice.model.OrderRequest;
 import com.assignment.orderservice.model.OrderResponse;
 import com.assignment.orderservice.services.implementation.OrderServiceImpl;
+import com.assignment.orderservice.services.implementation.OrderStatusStreamServiceImpl;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import reactor.core.publisher.Mono;
 
 import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
 
 @RestController
 @RequestMapping("/orders")
@@ -25,37 +43,138 @@ import java.net.URI;
 @Validated
 public class OrderController {
     private final OrderServiceImpl orderServiceImpl;
+    private final OrderStatusStreamServiceImpl orderStatusStreamService;
+    private final AdaptiveConcurrencyLimiter orderAdmissionLimiter;
+
+    @Value("${app.admission.retryAfter:PT1S}")
+    private Duration retryAfter = Duration.ofSeconds(1);
+
     private static final Logger logger = LoggerFactory.getLogger(OrderController.class);
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
 
     @PostMapping
-    public ResponseEntity<OrderResponse> createOrder(@Valid @RequestBody OrderRequest request){
+    public Mono<ResponseEntity<OrderResponse>> createOrder(
+            @Valid @RequestBody OrderRequest request,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey){
 
         logger.info("Received new order request for customer: {}", request.getCustomerName());
         logger.debug("Order details: {} items, requestedAt={}", request.getItems().size(), request.getRequestedAt());
 
-        OrderResponse orderResponse;
-        try {
-
-            orderResponse = orderServiceImpl.createOrder(request);
-            logger.info("Order created successfully. orderId={}", orderResponse.getOrderId());
-            return ResponseEntity
-                    .created(URI.create("/orders/" + orderResponse.getOrderId()))
-                    .body(orderResponse);
-
-        } catch (Exception e){
-            logger.error("Failed to process order for customer={}", request.getCustomerName(), e);
-
-            OrderResponse error = new OrderResponse(
+        AdaptiveConcurrencyLimiter.Permit permit = orderAdmissionLimiter.tryAcquire();
+        if (permit == null) {
+            logger.warn("Order rejected by admission control. limit={}, customer={}",
+                    orderAdmissionLimiter.getLimit(), request.getCustomerName());
+            OrderResponse rejected = new OrderResponse(
                     null,
                     request.getCustomerName(),
                     request.getItems(),
                     InventoryStatus.REJECTED,
-                    "Order failed: " + e.getMessage()
+                    Messages.FAILED_ORDER + ": too many requests, retry later"
             );
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+            return Mono.just(ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter.toSeconds()))
+                    .body(rejected));
+        }
+
+        return orderServiceImpl.createOrder(request, idempotencyKey)
+                .doOnSuccess(orderResponse -> permit.success())
+                .doOnError(e -> {
+                    if (isOverload(e))
+                        permit.dropped();
+                    else
+                        permit.ignore();
+                })
+                .doOnCancel(permit::ignore)
+                .map(orderResponse -> {
+                    logger.info("Order created successfully. orderId={}", orderResponse.getOrderId());
+                    return ResponseEntity
+                            .accepted()
+                            .location(URI.create("/orders/" + orderResponse.getOrderId()))
+                            .body(orderResponse);
+                })
+                .onErrorResume(e -> {
+                    logger.error("Failed to process order for customer={}", request.getCustomerName(), e);
+
+                    HttpStatus status = HttpStatus.INTERNAL_SERVER_ERROR;
+                    if (e instanceof KafkaPublishException)
+                        status = HttpStatus.SERVICE_UNAVAILABLE;
+                    else if (e instanceof TimeoutException)
+                        status = HttpStatus.GATEWAY_TIMEOUT;
+
+                    OrderResponse error = new OrderResponse(
+                            null,
+                            request.getCustomerName(),
+                            request.getItems(),
+                            InventoryStatus.REJECTED,
+                            Messages.FAILED_ORDER + ": " + e.getMessage()
+                    );
+                    if (e instanceof ConcurrencyLimitException)
+                        return Mono.just(ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter.toSeconds()))
+                                .body(error));
+                    if (e instanceof OrderInProgressException inProgress) {
+                        error.setOrderId(inProgress.getOrderId());
+                        error.setStatus(InventoryStatus.PENDING);
+                        return Mono.just(ResponseEntity.status(HttpStatus.CONFLICT)
+                                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter.toSeconds()))
+                                .body(error));
+                    }
+                    return Mono.just(ResponseEntity.status(status).body(error));
+                });
+    }
+
+    @GetMapping("/{orderId}")
+    public ResponseEntity<OrderResponse> getOrder(@PathVariable String orderId){
+
+        OrderResponse orderResponse = orderServiceImpl.getOrder(orderId);
+        if (orderResponse == null) {
+            logger.debug("Order not found. orderId={}", orderId);
+            return ResponseEntity.notFound().build();
         }
+        return ResponseEntity.ok(orderResponse);
+    }
+
+    @GetMapping(path = "/{orderId}/status/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamStatus(@PathVariable String orderId){
+
+        SseEmitter emitter = orderStatusStreamService.subscribe(orderId);
+        if (emitter == null) {
+            logger.debug("Order not found for status stream. orderId={}", orderId);
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(emitter);
+    }
+
+    @PostMapping("/batch")
+    public ResponseEntity<List<OrderResponse>> createOrders(@Valid @RequestBody OrderBatchRequest request){
+
+        logger.info("Received batch of {} order requests", request.getOrders().size());
 
+        try {
+
+            List<OrderResponse> orderResponses = orderServiceImpl.createOrders(request.getOrders());
+            logger.info("Batch of {} orders processed", orderResponses.size());
+            return ResponseEntity.ok(orderResponses);
+
+        } catch (Exception e){
+            logger.error("Failed to process batch of {} orders", request.getOrders().size(), e);
+
+            List<OrderResponse> errors = request.getOrders().stream()
+                    .map(order -> new OrderResponse(
+                            null,
+                            order.getCustomerName(),
+                            order.getItems(),
+                            InventoryStatus.REJECTED,
+                            Messages.FAILED_ORDER + ": " + e.getMessage()))
+                    .toList();
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errors);
+        }
+    }
 
+    private static boolean isOverload(Throwable e) {
+        return e instanceof KafkaPublishException
+                || e instanceof TimeoutException
+                || e instanceof ConcurrencyLimitException;
     }
 
 }
@@ -0,0 +1,12 @@
+package com.assignment.orderservice.errorhandling.exceptions;
+
+public class ConcurrencyLimitException extends RuntimeException{
+
+    public ConcurrencyLimitException(String message){
+        super(message);
+    }
+
+    public ConcurrencyLimitException(String message,Throwable cause){
+        super(message,cause);
+    }
+}
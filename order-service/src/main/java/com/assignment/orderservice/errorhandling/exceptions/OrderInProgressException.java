@@ -0,0 +1,19 @@
+package com.assignment.orderservice.errorhandling.exceptions;
+
+/**
+ * A retry carrying an Idempotency-Key whose order is not stored (yet): the first request is still in flight, or it
+ * missed its deadline and its write never landed. The client retries later with the same key.
+ */
+public class OrderInProgressException extends RuntimeException{
+
+    private final String orderId;
+
+    public OrderInProgressException(String message, String orderId){
+        super(message);
+        this.orderId = orderId;
+    }
+
+    public String getOrderId() {
+        return orderId;
+    }
+}
@@ -0,0 +1,21 @@
+package com.assignment.orderservice.errorhandling.exceptions;
+
+import java.util.Set;
+
+/**
+ * A status arrived for orders that are neither in Redis nor held locally, most likely because their write is still
+ * in flight. Retried for a short while only, see KafkaConfig.
+ */
+public class OrderNotStoredException extends RuntimeException{
+
+    private final Set<String> orderIds;
+
+    public OrderNotStoredException(String message, Set<String> orderIds){
+        super(message);
+        this.orderIds = orderIds;
+    }
+
+    public Set<String> getOrderIds() {
+        return orderIds;
+    }
+}
@@ -0,0 +1,5 @@
+package com.assignment.orderservice.ids;
+
+public interface OrderIdGenerator {
+    String nextId();
+}
@@ -0,0 +1,75 @@
+package com.assignment.orderservice.ids;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Time-ordered 64-bit ids: 41 bits of milliseconds since 2025-01-01, 10 bits of node id and a 12-bit
+ * per-millisecond sequence, written as 13 Crockford base32 characters so the string order matches the time order.
+ *
+ * <p>The last timestamp and sequence share one {@link AtomicLong} and are advanced with CAS, so no lock is taken.
+ * When a millisecond runs out of sequence numbers, or the clock steps back, the generator continues from the
+ * last id instead of waiting; ids stay unique and increasing and catch up with the clock.
+ *
+ * <p>Ids are unique across instances only if every instance has its own node id, so there is no derived default:
+ * startup fails until app.orders.nodeId is set (for example from the StatefulSet pod index).
+ */
+@Component
+@ConditionalOnProperty(name = "app.orders.idGenerator", havingValue = "snowflake", matchIfMissing = true)
+public class SnowflakeOrderIdGenerator implements OrderIdGenerator {
+
+    private static final Logger logger = LoggerFactory.getLogger(SnowflakeOrderIdGenerator.class);
+    private static final long EPOCH = 1735689600000L;
+    private static final int NODE_BITS = 10;
+    private static final int SEQUENCE_BITS = 12;
+    private static final long MAX_NODE = (1L << NODE_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final int ENCODED_LENGTH = 13;
+    private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+
+    private final long node;
+    private final AtomicLong lastTick = new AtomicLong();
+
+    public SnowflakeOrderIdGenerator(@Value("${app.orders.nodeId:-1}") long nodeId) {
+        if (nodeId < 0)
+            throw new IllegalStateException("app.orders.nodeId (APP_ORDERS_NODE_ID) must be set to an id unique to "
+                    + "this instance, between 0 and " + MAX_NODE + ", or use app.orders.idGenerator=uuid");
+        if (nodeId > MAX_NODE)
+            throw new IllegalArgumentException("nodeId must be between 0 and " + MAX_NODE);
+        this.node = nodeId;
+        logger.info("Order ids are generated with node id {}", node);
+    }
+
+    @Override
+    public String nextId() {
+        return encode(nextLong());
+    }
+
+    private long nextLong() {
+        long now = System.currentTimeMillis() - EPOCH;
+        long tick;
+        while (true) {
+            long last = lastTick.get();
+            tick = (now > last >>> SEQUENCE_BITS) ? now << SEQUENCE_BITS : last + 1;
+            if (lastTick.compareAndSet(last, tick))
+                break;
+        }
+        long millis = tick >>> SEQUENCE_BITS;
+        return millis << (NODE_BITS + SEQUENCE_BITS) | node << SEQUENCE_BITS | tick & SEQUENCE_MASK;
+    }
+
+    private static String encode(long id) {
+        char[] chars = new char[ENCODED_LENGTH];
+        for (int i = ENCODED_LENGTH - 1; i >= 0; i--) {
+            chars[i] = ALPHABET[(int) (id & 31)];
+            id >>>= 5;
+        }
+        return new String(chars);
+    }
+
+}
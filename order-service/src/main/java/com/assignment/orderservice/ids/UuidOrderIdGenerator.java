@@ -0,0 +1,16 @@
+package com.assignment.orderservice.ids;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+@Component
+@ConditionalOnProperty(name = "app.orders.idGenerator", havingValue = "uuid")
+public class UuidOrderIdGenerator implements OrderIdGenerator {
+
+    @Override
+    public String nextId() {
+        return UUID.randomUUID().toString();
+    }
+}
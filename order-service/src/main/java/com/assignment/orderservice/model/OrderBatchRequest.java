@@ -0,0 +1,24 @@
+package com.assignment.orderservice.model;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderBatchRequest {
+
+    public static final int MAX_BATCH_SIZE = 500;
+
+    @NotEmpty
+    @Size(max = MAX_BATCH_SIZE, message = "batch must contain at most " + MAX_BATCH_SIZE + " orders")
+    @Valid
+    private List<OrderRequest> orders;
+
+}
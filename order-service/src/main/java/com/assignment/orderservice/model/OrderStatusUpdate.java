@@ -0,0 +1,7 @@
+package com.assignment.orderservice.model;
+
+import com.assignment.commonmodel.model.InventoryStatus;
+
+public record OrderStatusUpdate(String orderId, InventoryStatus status) {
+
+}
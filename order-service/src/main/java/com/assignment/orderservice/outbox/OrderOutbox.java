@@ -0,0 +1,148 @@
+package com.assignment.orderservice.outbox;
+
+import com.assignment.commonmodel.model.OrderEvent;
+import com.assignment.orderservice.services.implementation.KafkaPublisherImpl;
+import com.assignment.orderservice.services.implementation.OrderCacheServiceImpl;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Local durable outbox for new orders (opt-in with {@code app.outbox.enabled}).
+ *
+ * <p>createOrder only appends the order to the journal and waits for the group commit, so the order
+ * survives a restart before Redis or Kafka saw it. The relay drains the journal in batches: Redis first,
+ * so the order exists by the time its inventory result comes back, then Kafka. The checkpoint only moves
+ * once both accepted a batch, which makes delivery at-least-once.
+ */
+@Service
+@RequiredArgsConstructor
+public class OrderOutbox {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderOutbox.class);
+    private final ObjectMapper objectMapper;
+    private final OrderCacheServiceImpl orderCacheService;
+    private final KafkaPublisherImpl kafkaPublisherService;
+
+    @Value("${app.outbox.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.outbox.directory:./data/outbox}")
+    private String directory;
+
+    @Value("${app.outbox.segmentSize:67108864}")
+    private int segmentSize;
+
+    @Value("${app.outbox.relayBatchSize:500}")
+    private int relayBatchSize;
+
+    @Value("${app.outbox.sendTimeout:PT10S}")
+    private Duration sendTimeout;
+
+    private SegmentedJournal journal;
+    private long redisWrittenUpTo;
+
+    @PostConstruct
+    void open() throws IOException {
+        if (!enabled)
+            return;
+        journal = new SegmentedJournal(Path.of(directory), segmentSize);
+        redisWrittenUpTo = journal.checkpoint();
+        logger.info("Order outbox opened at {}, checkpoint={}, appended={}",
+                directory, journal.checkpoint(), journal.appendedPosition());
+    }
+
+    @PreDestroy
+    void close() {
+        if (journal != null)
+            journal.close();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Mono<Void> append(OrderEvent event) {
+        return Mono.fromRunnable(() -> appendAll(List.of(event)))
+                .subscribeOn(Schedulers.boundedElastic())
+                .then();
+    }
+
+    /**
+     * Appends all events and returns once they are on disk; one group commit covers the whole list.
+     */
+    public void appendAll(List<OrderEvent> events) {
+        long position = 0;
+        for (OrderEvent event : events) {
+            try {
+                position = journal.append(objectMapper.writeValueAsBytes(event));
+            } catch (JsonProcessingException e) {
+                throw new IllegalArgumentException("Order " + event.getOrderId() + " cannot be serialized", e);
+            }
+        }
+        journal.sync(position);
+        logger.debug("Appended {} orders to outbox, position={}", events.size(), position);
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.relayInterval:200}")
+    public void relay() {
+        if (!enabled)
+            return;
+
+        List<SegmentedJournal.JournalRecord> records = journal.read(journal.checkpoint(), relayBatchSize);
+        if (records.isEmpty())
+            return;
+
+        long batchEnd = records.get(records.size() - 1).nextPosition();
+        List<OrderEvent> events = new ArrayList<>(records.size());
+        List<OrderEvent> notInRedis = new ArrayList<>();
+        for (SegmentedJournal.JournalRecord record : records) {
+            OrderEvent event = decode(record);
+            if (event == null)
+                continue;
+            events.add(event);
+            if (record.nextPosition() > redisWrittenUpTo)
+                notInRedis.add(event);
+        }
+
+        if (!notInRedis.isEmpty()) {
+            if (!orderCacheService.writeOrdersToRedis(notInRedis)) {
+                logger.warn("Outbox relay: Redis unavailable, {} orders stay in the outbox", events.size());
+                return;
+            }
+            redisWrittenUpTo = batchEnd;
+        }
+
+        if (!kafkaPublisherService.publishOrdersAndWait(events, sendTimeout)) {
+            logger.warn("Outbox relay: Kafka unavailable, {} orders stay in the outbox", events.size());
+            return;
+        }
+
+        journal.commit(batchEnd);
+        logger.debug("Outbox relay: {} orders delivered to Redis and Kafka, checkpoint={}", events.size(), batchEnd);
+    }
+
+    private OrderEvent decode(SegmentedJournal.JournalRecord record) {
+        try {
+            return objectMapper.readValue(record.payload(), OrderEvent.class);
+        } catch (IOException e) {
+            logger.error("Skipping unreadable outbox record ending at position={}", record.nextPosition(), e);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,346 @@
+package com.assignment.orderservice.outbox;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only log of opaque records kept in fixed-size memory-mapped segment files.
+ *
+ * <p>Positions are logical byte offsets: a segment covers {@code [base, base + segmentSize)} and its file is
+ * named after its base. Each record is {@code [length][crc32][payload]}; a zero length marks the end of a segment.
+ * On open the last segment is scanned and the first torn or corrupt record ends the log.
+ *
+ * <p>{@link #sync(long)} does group commit: the first caller that needs a force becomes the leader and forces
+ * everything appended so far, callers arriving meanwhile wait and are usually covered by that same force.
+ * {@link #commit(long)} persists the consumer checkpoint and drops segments that lie completely before it.
+ */
+public class SegmentedJournal implements Closeable {
+
+    private static final int HEADER_SIZE = 8;
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final String CHECKPOINT_FILE = "checkpoint";
+
+    public record JournalRecord(byte[] payload, long nextPosition) {
+    }
+
+    private static final class Segment {
+        final long baseOffset;
+        final Path path;
+        final FileChannel channel;
+        final MappedByteBuffer buffer;
+
+        Segment(long baseOffset, Path path, FileChannel channel, MappedByteBuffer buffer) {
+            this.baseOffset = baseOffset;
+            this.path = path;
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+    }
+
+    private final Path directory;
+    private final int segmentSize;
+    private final NavigableMap<Long, Segment> segments = new ConcurrentSkipListMap<>();
+
+    private Segment active;
+    private long appendPosition;
+
+    private final ReentrantLock syncLock = new ReentrantLock();
+    private final Condition forced = syncLock.newCondition();
+    private long durablePosition;
+    private boolean forcing;
+
+    private volatile long checkpoint;
+
+    public SegmentedJournal(Path directory, int segmentSize) throws IOException {
+        if (segmentSize <= HEADER_SIZE)
+            throw new IllegalArgumentException("segmentSize must be larger than " + HEADER_SIZE);
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        Files.createDirectories(directory);
+        this.checkpoint = readCheckpoint();
+        recover();
+    }
+
+    public long append(byte[] payload) {
+        int recordSize = HEADER_SIZE + payload.length;
+        if (recordSize > segmentSize)
+            throw new IllegalArgumentException("Record of " + payload.length + " bytes does not fit a segment");
+
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+
+        synchronized (this) {
+            int index = (int) (appendPosition - active.baseOffset);
+            if (index + recordSize > segmentSize) {
+                roll();
+                index = 0;
+            }
+            active.buffer.putInt(index + 4, (int) crc.getValue());
+            active.buffer.put(index + HEADER_SIZE, payload);
+            active.buffer.putInt(index, payload.length);
+            appendPosition = active.baseOffset + index + recordSize;
+            return appendPosition;
+        }
+    }
+
+    /**
+     * Blocks until every record up to {@code position} is on disk.
+     */
+    public void sync(long position) {
+        syncLock.lock();
+        try {
+            while (durablePosition < position) {
+                if (forcing) {
+                    forced.awaitUninterruptibly();
+                    continue;
+                }
+                forcing = true;
+                long from = durablePosition;
+                long target = appendedPosition();
+                boolean success = false;
+                syncLock.unlock();
+                try {
+                    force(from, target);
+                    success = true;
+                } finally {
+                    syncLock.lock();
+                    forcing = false;
+                    if (success)
+                        durablePosition = Math.max(durablePosition, target);
+                    forced.signalAll();
+                }
+            }
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    /**
+     * Reads up to {@code maxRecords} durable records starting at {@code fromPosition}.
+     */
+    public List<JournalRecord> read(long fromPosition, int maxRecords) {
+        long limit = durablePosition();
+        List<JournalRecord> records = new ArrayList<>();
+        long position = fromPosition;
+
+        while (records.size() < maxRecords && position < limit) {
+            Map.Entry<Long, Segment> entry = segments.floorEntry(position);
+            // before the first segment: that part of the log was committed and deleted
+            if (entry == null)
+                break;
+            Segment segment = entry.getValue();
+            int index = (int) (position - segment.baseOffset);
+            int length = index + HEADER_SIZE <= segmentSize ? segment.buffer.getInt(index) : 0;
+            if (length <= 0) {
+                Long next = segments.higherKey(segment.baseOffset);
+                if (next == null)
+                    break;
+                position = next;
+                continue;
+            }
+            byte[] payload = new byte[length];
+            segment.buffer.get(index + HEADER_SIZE, payload);
+            position = segment.baseOffset + index + HEADER_SIZE + length;
+            records.add(new JournalRecord(payload, position));
+        }
+        return records;
+    }
+
+    /**
+     * Reads the record starting at {@code position} straight from the mapped segment, without waiting for it to be
+     * forced. Returns null when nothing was appended there or its segment was already committed and deleted.
+     */
+    public JournalRecord readAt(long position) {
+        if (position >= appendedPosition())
+            return null;
+        Map.Entry<Long, Segment> entry = segments.floorEntry(position);
+        if (entry == null || position - entry.getKey() + HEADER_SIZE > segmentSize)
+            return null;
+        Segment segment = entry.getValue();
+        int index = (int) (position - segment.baseOffset);
+        int length = segment.buffer.getInt(index);
+        if (length <= 0 || index + HEADER_SIZE + length > segmentSize)
+            return null;
+        byte[] payload = new byte[length];
+        segment.buffer.get(index + HEADER_SIZE, payload);
+        return new JournalRecord(payload, position + HEADER_SIZE + length);
+    }
+
+    public long checkpoint() {
+        return checkpoint;
+    }
+
+    /**
+     * Bytes taken by a record with a payload of {@code payloadLength}, so the position returned by
+     * {@link #append(byte[])} minus this is where the record starts.
+     */
+    public static int recordSize(int payloadLength) {
+        return HEADER_SIZE + payloadLength;
+    }
+
+    /**
+     * Marks everything before {@code position} as consumed and deletes segments that are no longer needed.
+     */
+    public void commit(long position) {
+        writeCheckpoint(position);
+        checkpoint = position;
+
+        for (Segment segment : List.copyOf(segments.headMap(position, false).values())) {
+            if (segment == active || segment.baseOffset + segmentSize > position)
+                continue;
+            segments.remove(segment.baseOffset);
+            closeQuietly(segment);
+            try {
+                Files.deleteIfExists(segment.path);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to delete journal segment " + segment.path, e);
+            }
+        }
+    }
+
+    public long durablePosition() {
+        syncLock.lock();
+        try {
+            return durablePosition;
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    public synchronized long appendedPosition() {
+        return appendPosition;
+    }
+
+    @Override
+    public synchronized void close() {
+        for (Segment segment : segments.values()) {
+            segment.buffer.force();
+            closeQuietly(segment);
+        }
+        segments.clear();
+    }
+
+    private void force(long from, long to) {
+        for (Segment segment : segments.values()) {
+            long start = Math.max(from, segment.baseOffset);
+            long end = Math.min(to, segment.baseOffset + segmentSize);
+            if (start < end)
+                segment.buffer.force((int) (start - segment.baseOffset), (int) (end - start));
+        }
+    }
+
+    private void roll() {
+        long nextBase = active.baseOffset + segmentSize;
+        active = openSegment(nextBase);
+        appendPosition = nextBase;
+    }
+
+    private void recover() throws IOException {
+        List<Long> bases;
+        try (Stream<Path> files = Files.list(directory)) {
+            bases = files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.endsWith(SEGMENT_SUFFIX))
+                    .map(name -> Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length())))
+                    .sorted()
+                    .toList();
+        }
+
+        if (bases.isEmpty()) {
+            long base = checkpoint - checkpoint % segmentSize;
+            active = openSegment(base);
+            appendPosition = Math.max(base, checkpoint);
+        } else {
+            for (long base : bases)
+                active = openSegment(base);
+            int end = scanEnd(active);
+            clearTail(active, end);
+            appendPosition = active.baseOffset + end;
+        }
+        durablePosition = appendPosition;
+    }
+
+    private int scanEnd(Segment segment) {
+        int index = 0;
+        while (index + HEADER_SIZE <= segmentSize) {
+            int length = segment.buffer.getInt(index);
+            if (length <= 0 || index + HEADER_SIZE + length > segmentSize)
+                break;
+            byte[] payload = new byte[length];
+            segment.buffer.get(index + HEADER_SIZE, payload);
+            CRC32 crc = new CRC32();
+            crc.update(payload);
+            if ((int) crc.getValue() != segment.buffer.getInt(index + 4))
+                break;
+            index += HEADER_SIZE + length;
+        }
+        return index;
+    }
+
+    private void clearTail(Segment segment, int from) {
+        for (int index = from; index < segmentSize; index++) {
+            if (segment.buffer.get(index) != 0)
+                segment.buffer.put(index, (byte) 0);
+        }
+        segment.buffer.force();
+    }
+
+    private Segment openSegment(long baseOffset) {
+        Path path = directory.resolve(String.format("%020d%s", baseOffset, SEGMENT_SUFFIX));
+        try {
+            FileChannel channel = FileChannel.open(path,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+            Segment segment = new Segment(baseOffset, path, channel, buffer);
+            segments.put(baseOffset, segment);
+            return segment;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open journal segment " + path, e);
+        }
+    }
+
+    private long readCheckpoint() throws IOException {
+        Path path = directory.resolve(CHECKPOINT_FILE);
+        if (!Files.exists(path))
+            return 0L;
+        byte[] bytes = Files.readAllBytes(path);
+        return bytes.length == Long.BYTES ? ByteBuffer.wrap(bytes).getLong() : 0L;
+    }
+
+    private void writeCheckpoint(long position) {
+        Path path = directory.resolve(CHECKPOINT_FILE);
+        Path temp = directory.resolve(CHECKPOINT_FILE + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.write(ByteBuffer.allocate(Long.BYTES).putLong(0, position));
+            channel.force(false);
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write journal checkpoint", e);
+        }
+    }
+
+    private static void closeQuietly(Segment segment) {
+        try {
+            segment.channel.close();
+        } catch (IOException ignored) {
+            // the mapping stays valid until it is garbage collected
+        }
+    }
+}
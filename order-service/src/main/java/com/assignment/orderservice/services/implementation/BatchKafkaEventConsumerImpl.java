@@ -0,0 +1,96 @@
+package com.assignment.orderservice.services.implementation;
+
+import com.assignment.commonmodel.model.InventoryCheckResultEvent;
+import com.assignment.commonmodel.model.InventoryStatus;
+import com.assignment.orderservice.cache.OrderNearCache;
+import com.assignment.orderservice.errorhandling.exceptions.OrderNotStoredException;
+import com.assignment.orderservice.errorhandling.exceptions.RedisOperationException;
+import com.assignment.orderservice.services.interfaces.KafkaBatchEventConsumer;
+import com.assignment.orderservice.services.interfaces.OrderCacheService;
+import com.assignment.orderservice.services.interfaces.OrderStatusStreamService;
+import lombok.RequiredArgsConstructor;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Applies the inventory results of a whole poll when spring.kafka.listener.type=batch: only the last result per
+ * order counts, and all of them go to Redis in one pipeline. The poll is committed after this returns (ack-mode
+ * batch), so an unacknowledged pipeline throws and the batch error handler redelivers the poll instead. Results that
+ * cannot be applied on any retry (unreadable, or a status this build does not know) are skipped. Results for orders
+ * Redis does not hold yet are redelivered from the first of their records on; the records before it are committed.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "spring.kafka.listener.type", havingValue = "batch")
+public class BatchKafkaEventConsumerImpl implements KafkaBatchEventConsumer {
+    private static final Logger logger = LoggerFactory.getLogger(BatchKafkaEventConsumerImpl.class);
+    private final OrderCacheService orderCacheService;
+    private final OrderNearCache orderNearCache;
+    private final OrderStatusStreamService orderStatusStreamService;
+
+    @Override
+    @KafkaListener(
+            topics = "${app.topics.inventoryResults}",
+            groupId = "${spring.kafka.consumer.group-id:order-service-results-consumer}"
+    )
+    public void consumeInventoryResults(List<ConsumerRecord<String, InventoryCheckResultEvent>> records) {
+        // records of one order share a partition, so the later offset is the later result
+        Map<String, InventoryStatus> lastStatus = new LinkedHashMap<>();
+        for (ConsumerRecord<String, InventoryCheckResultEvent> record : records) {
+            InventoryCheckResultEvent event = record.value();
+            if (event == null) {
+                logger.error("Skipping unreadable inventory result key={} at {}-{}@{}",
+                        record.key(), record.topic(), record.partition(), record.offset());
+                continue;
+            }
+            if (event.getStatus() == null) {
+                logger.error("Skipping inventory result with unknown status for orderId={} at {}-{}@{}",
+                        event.getOrderId(), record.topic(), record.partition(), record.offset());
+                continue;
+            }
+            lastStatus.put(event.getOrderId(), event.getStatus());
+        }
+        if (lastStatus.isEmpty())
+            return;
+
+        Set<String> notStored = Set.of();
+        try {
+            if (!orderCacheService.setOrderStatuses(lastStatus))
+                throw new RedisOperationException("Status updates of " + lastStatus.size() + " orders were not acknowledged by Redis");
+        } catch (OrderNotStoredException e) {
+            notStored = e.getOrderIds();
+        }
+
+        for (Map.Entry<String, InventoryStatus> update : lastStatus.entrySet()) {
+            if (notStored.contains(update.getKey()))
+                continue;
+            orderNearCache.updateStatus(update.getKey(), update.getValue());
+            orderStatusStreamService.publish(update.getKey(), update.getValue());
+        }
+        logger.info("{} order statuses updated from {} inventory results", lastStatus.size() - notStored.size(), records.size());
+
+        if (!notStored.isEmpty())
+            throw new BatchListenerFailedException(notStored.size() + " orders not stored yet",
+                    new OrderNotStoredException("Orders not found in Redis or local fallback", notStored),
+                    firstRecordOf(records, notStored));
+    }
+
+    private static int firstRecordOf(List<ConsumerRecord<String, InventoryCheckResultEvent>> records, Set<String> orderIds) {
+        for (int i = 0; i < records.size(); i++) {
+            InventoryCheckResultEvent event = records.get(i).value();
+            if (event != null && orderIds.contains(event.getOrderId()))
+                return i;
+        }
+        return 0;
+    }
+}
@@ -2,10 +2,13 @@ package com.assignment.orderservice.services.implementation;
 
 import com.assignment.commonmodel.model.InventoryCheckResultEvent;
 import com.assignment.commonmodel.model.InventoryStatus;
+import com.assignment.orderservice.cache.OrderNearCache;
 import com.assignment.orderservice.services.interfaces.KafkaEventConsumer;
 import com.assignment.orderservice.services.interfaces.OrderCacheService;
+import com.assignment.orderservice.services.interfaces.OrderStatusStreamService;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.stereotype.Component;
@@ -13,9 +16,12 @@ import org.slf4j.LoggerFactory;
 
 @Component
 @RequiredArgsConstructor
+@ConditionalOnProperty(name = "spring.kafka.listener.type", havingValue = "single", matchIfMissing = true)
 public class KafkaEventConsumerImpl implements KafkaEventConsumer {
     private static final Logger logger = LoggerFactory.getLogger(KafkaEventConsumerImpl.class);
     private final OrderCacheService orderCacheService;
+    private final OrderNearCache orderNearCache;
+    private final OrderStatusStreamService orderStatusStreamService;
 
     @Override
     @KafkaListener(
@@ -27,8 +33,15 @@ public class KafkaEventConsumerImpl implements KafkaEventConsumer {
 
         String orderId = event.getOrderId();
         InventoryStatus status = event.getStatus();
+        if (status == null) {
+            // a status added by a newer inventory-service decodes as null; retrying it cannot succeed
+            logger.error("Skipping inventory result with unknown status for orderId={}", orderId);
+            return;
+        }
 
         orderCacheService.setOrderStatus(orderId,status);
+        orderNearCache.updateStatus(orderId, status);
+        orderStatusStreamService.publish(orderId, status);
         logger.info("Order {} status updated to {}", orderId, status);
     }
 }
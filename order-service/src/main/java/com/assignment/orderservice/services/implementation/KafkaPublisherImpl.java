@@ -1,15 +1,31 @@
 package com.assignment.orderservice.services.implementation;
 
 import com.assignment.commonmodel.model.OrderEvent;
+import com.assignment.orderservice.concurrency.ConcurrencyGuard;
+import com.assignment.orderservice.errorhandling.exceptions.ConcurrencyLimitException;
 import com.assignment.orderservice.errorhandling.exceptions.KafkaPublishException;
 import com.assignment.orderservice.services.interfaces.KafkaEventPublisher;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.LoggerFactory;
 import org.springframework.kafka.KafkaException;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
 import org.springframework.beans.factory.annotation.Value;
 import org.slf4j.Logger;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 @Service
 @RequiredArgsConstructor
@@ -17,32 +33,101 @@ public class KafkaPublisherImpl implements KafkaEventPublisher {
 
     private static final Logger logger = LoggerFactory.getLogger(KafkaPublisherImpl.class);
     private final KafkaTemplate<String, Object> orderEventProducer;
+    private final ConcurrencyGuard kafkaGuard;
 
     @Value("${app.topics.orders}")
     private String orderTopic;
 
+    /**
+     * Completes when the broker acknowledged the record, so a failed send reaches the caller instead of only the log.
+     * A send refused by the concurrency guard is passed on as is, so the caller can answer 429 instead of 503.
+     */
     @Override
-    public void publishOrderCreated(OrderEvent event) {
+    public Mono<SendResult<String, Object>> publishOrderCreated(OrderEvent event) {
         String orderId = event.getOrderId();
 
+        return kafkaGuard.callReactive(() -> Mono.defer(() -> {
+                    logger.info("Publishing Order Event for orderId={} to topic={}", orderId, orderTopic);
+                    return Mono.fromFuture(orderEventProducer.send(orderTopic, orderId, event));
+                }))
+                .doOnNext(result -> logger.debug("Order Event for orderId={} published. Partition={}, Offset={}",
+                        orderId,
+                        result.getRecordMetadata().partition(),
+                        result.getRecordMetadata().offset()))
+                .onErrorMap(e -> !(e instanceof KafkaPublishException || e instanceof ConcurrencyLimitException), e -> {
+                    logger.error("Kafka publish error for orderId={}", orderId, e);
+                    return new KafkaPublishException("Kafka publish failed, Error occurred in Kafka process", e);
+                });
+    }
+
+    /**
+     * Hands every event to the producer before waiting, so records of one batch share producer batches
+     * instead of going out one request at a time. Returns the orderIds the broker did not acknowledge
+     * within the timeout, whether the send was refused up front or failed later.
+     */
+    @Override
+    public Set<String> publishOrdersCreated(List<OrderEvent> events, Duration timeout) {
+        Set<String> failedOrderIds = new HashSet<>();
+        Map<String, CompletableFuture<SendResult<String, Object>>> sends = new LinkedHashMap<>();
+        logger.info("Publishing {} Order Events to topic={}", events.size(), orderTopic);
+
+        for (OrderEvent event : events) {
+            try {
+                sends.put(event.getOrderId(), send(event));
+            } catch (KafkaException | ConcurrencyLimitException e) {
+                logger.error("Kafka publish error for orderId={}", event.getOrderId(), e);
+                failedOrderIds.add(event.getOrderId());
+            }
+        }
+
         try {
-            logger.info("Publishing Order Event for orderId={} to topic={}", event.getOrderId(), orderTopic);
-
-            orderEventProducer.send(orderTopic, event.getOrderId(), event)
-                    .whenComplete((result, exception) -> {
-                        if (exception != null) {
-                            logger.error("Failed to publish Order Event for orderId={}",orderId, exception);
-                        } else {
-                            logger.debug("Order Event for orderId={} published. Partition={}, Offset={}",
-                                    event.getOrderId(),
-                                    result.getRecordMetadata().partition(),
-                                    result.getRecordMetadata().offset());
-                        }
-                    });
-
-        }catch (KafkaException e) {
-            logger.error("Kafka publish error for orderId={}", orderId, e);
-            throw new KafkaPublishException("Kafka publish failed, Error occurred in Kafka process", e);
+            CompletableFuture.allOf(sends.values().toArray(CompletableFuture[]::new))
+                    .get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException | TimeoutException e) {
+            logger.error("Kafka publish of {} Order Events not fully confirmed: {}", sends.size(), e.toString());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         }
+
+        sends.forEach((orderId, send) -> {
+            if (!send.isDone() || send.isCompletedExceptionally())
+                failedOrderIds.add(orderId);
+        });
+        return failedOrderIds;
+    }
+
+    /**
+     * Sends all events and waits until the broker acknowledged every one of them or the timeout passed.
+     */
+    public boolean publishOrdersAndWait(List<OrderEvent> events, Duration timeout) {
+        List<CompletableFuture<SendResult<String, Object>>> sends = new ArrayList<>(events.size());
+        try {
+            for (OrderEvent event : events)
+                sends.add(send(event));
+            CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new))
+                    .get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            return true;
+        } catch (KafkaException | ConcurrencyLimitException | ExecutionException | TimeoutException e) {
+            logger.error("Kafka publish of {} Order Events not confirmed: {}", events.size(), e.toString());
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private CompletableFuture<SendResult<String, Object>> send(OrderEvent event) {
+        String orderId = event.getOrderId();
+        return kafkaGuard.callAsync(() -> orderEventProducer.send(orderTopic, orderId, event))
+                .whenComplete((result, exception) -> {
+                    if (exception != null) {
+                        logger.error("Failed to publish Order Event for orderId={}",orderId, exception);
+                    } else {
+                        logger.debug("Order Event for orderId={} published. Partition={}, Offset={}",
+                                orderId,
+                                result.getRecordMetadata().partition(),
+                                result.getRecordMetadata().offset());
+                    }
+                });
     }
 }
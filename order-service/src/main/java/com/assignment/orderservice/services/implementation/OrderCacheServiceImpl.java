@@ -1,21 +1,61 @@
 package com.assignment.orderservice.services.implementation;
 
+import com.assignment.commonmodel.codec.OrderEventCodec;
 import com.assignment.commonmodel.constants.Constants;
+import com.assignment.commonmodel.resilience.CircuitBreaker;
 import com.assignment.commonmodel.model.InventoryStatus;
 import com.assignment.commonmodel.model.OrderEvent;
+import com.assignment.orderservice.cache.OrderCacheMetrics;
+import com.assignment.orderservice.cache.OrderCacheMetrics.Operation;
+import com.assignment.orderservice.cache.OrderCacheMetrics.Source;
+import com.assignment.orderservice.cache.OrderFallbackCache;
+import com.assignment.orderservice.cache.OrderNearCache;
+import com.assignment.orderservice.cache.OrderTtlPolicy;
+import com.assignment.orderservice.cache.RedisCommandCoalescer;
+import com.assignment.orderservice.cache.RedisShardRouter;
+import com.assignment.orderservice.cache.RedisSpillLog;
+import com.assignment.orderservice.concurrency.ConcurrencyGuard;
+import com.assignment.orderservice.errorhandling.exceptions.OrderNotStoredException;
+import com.assignment.orderservice.errorhandling.exceptions.RedisOperationException;
 import com.assignment.orderservice.services.interfaces.OrderCacheService;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.LoggerFactory;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.GenericToStringSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.slf4j.Logger;
-import org.springframework.beans.factory.annotation.Value;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
-import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
 
 
 @Service
@@ -23,122 +63,526 @@ import java.util.concurrent.ConcurrentHashMap;
 public class OrderCacheServiceImpl implements OrderCacheService {
 
     private static final Logger logger = LoggerFactory.getLogger(OrderCacheServiceImpl.class);
-    private final Map<String, Entry> localCache = new ConcurrentHashMap<>();
-    private final Map<String, Entry> pendingItemsToStoreInRedis = new ConcurrentHashMap<>();
     private final RedisTemplate<String, Object> redis;
-    @Value("${app.cache.ttl}")
-    private final Duration ttl = Duration.ofMinutes(30);
-
-    private static class Entry {
-        final Object value;
-        final Instant expiresAt;
-        Entry(Object v, Instant exp) {
-            this.value = v; this.expiresAt = exp;
-        }
-        boolean expired() {
-            return Instant.now().isAfter(expiresAt);
-        }
-    }
+    private final ReactiveRedisTemplate<String, Object> reactiveRedis;
+    private final ConcurrencyGuard redisGuard;
+    private final RedisCommandCoalescer commandCoalescer;
+    private final OrderNearCache nearCache;
+    private final OrderFallbackCache fallbackCache;
+    private final RedisSpillLog spillLog;
+    private final CircuitBreaker redisCircuitBreaker;
+    private final OrderTtlPolicy ttlPolicy;
+    private final RedisShardRouter shardRouter;
+    private final OrderCacheMetrics metrics;
+    private final AtomicBoolean flushing = new AtomicBoolean();
+
+    private static final RedisScript<Long> SET_STATUS_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/set-order-status.lua"), Long.class);
+    private static final RedisSerializer<Long> SCRIPT_RESULT_SERIALIZER = new GenericToStringSerializer<>(Long.class);
+
+    private static final long FLUSH_PROGRESS_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+    @Value("${app.cache.flush.chunkSize:500}")
+    private int flushChunkSize = 500;
+
+    @Value("${app.cache.flush.parallelism:2}")
+    private int flushParallelism = 2;
+
+    @Value("${app.cache.flush.maxOrdersPerSecond:20000}")
+    private int flushMaxOrdersPerSecond = 20000;
 
     @Override
     public String saveOrder(OrderEvent event) {
         String key = buildKey(event.getOrderId());
-        boolean isRedisOk = tryWriteRedis(() -> redis.opsForValue().set(key, event));
+        boolean isRedisOk = tryWriteRedis(Operation.SET, () -> commandCoalescer.set(key, event, ttlPolicy.ttlFor(event.getStatus())));
+        nearCache.put(event);
 
         if (isRedisOk) {
-            pendingItemsToStoreInRedis.remove(key);
+            fallbackCache.remove(key);
             logger.info("Order saved to Redis with key={}, event{}", key,event);
         }else {
-            Entry localCacheEntry = new Entry(event, Instant.now().plus(ttl));
-            localCache.put(key, localCacheEntry);
-            pendingItemsToStoreInRedis.put(key, localCacheEntry);
+            saveToLocalFallback(key, event);
             logger.error("Redis unavailable. Saved to local fallback and queued for retry. key={}", key);
         }
         return key;
     }
+
+    /**
+     * Same contract as {@link #saveOrder(OrderEvent)}, but the Redis write runs on Lettuce's event loop
+     * and a Redis failure ends in the local fallback instead of an error.
+     */
+    @Override
+    public Mono<String> saveOrderReactive(OrderEvent event) {
+        String key = buildKey(event.getOrderId());
+
+        return Mono.defer(() -> {
+                    CircuitBreaker.Permit permit = redisCircuitBreaker.tryAcquire();
+                    if (permit == null)
+                        return Mono.just(false);
+                    long startNanos = System.nanoTime();
+                    return redisGuard.callReactive(() -> writeReactive(key, event))
+                            .doOnNext(ignored -> {
+                                permit.onSuccess();
+                                metrics.recordRedis(Operation.SET, startNanos, true);
+                            })
+                            .doOnError(exception -> {
+                                if (exception instanceof org.springframework.dao.DataAccessException)
+                                    permit.onFailure();
+                                metrics.recordRedis(Operation.SET, startNanos, false);
+                            })
+                            // guard refusals, non-Redis errors and the create timeout's cancel
+                            .doFinally(signal -> permit.release());
+                })
+                .onErrorResume(exception -> {
+                    logger.error("Redis data access error: {}", exception.getClass().getSimpleName());
+                    return Mono.just(false);
+                })
+                .map(isRedisOk -> {
+                    nearCache.put(event);
+                    if (isRedisOk) {
+                        fallbackCache.remove(key);
+                        logger.info("Order saved to Redis with key={}, event{}", key, event);
+                    } else {
+                        saveToLocalFallback(key, event);
+                        logger.error("Redis unavailable. Saved to local fallback and queued for retry. key={}", key);
+                    }
+                    return key;
+                });
+    }
+
+    /**
+     * Coalesced with concurrent writes when the coalescer runs; the reply is moved off its flusher thread so the
+     * rest of the request never runs there. A PENDING order is written with SET NX: its Kafka event is already on
+     * the way, and a status that lands first must not be overwritten by it.
+     */
+    private Mono<Boolean> writeReactive(String key, OrderEvent event) {
+        Duration ttl = ttlPolicy.ttlFor(event.getStatus());
+        boolean ifAbsent = event.getStatus() == InventoryStatus.PENDING;
+        if (!commandCoalescer.isCoalescing())
+            return (ifAbsent
+                    ? reactiveRedis.opsForValue().setIfAbsent(key, event, ttl)
+                    : reactiveRedis.opsForValue().set(key, event, ttl))
+                    .map(ignored -> true);
+        return Mono.fromFuture(() -> ifAbsent
+                        ? commandCoalescer.setIfAbsentAsync(key, event, ttl)
+                        : commandCoalescer.setAsync(key, event, ttl))
+                .map(ignored -> true)
+                .publishOn(Schedulers.parallel());
+    }
+
+    /**
+     * Against Redis Cluster the batch is written as one pipeline per shard, in parallel; only the orders of a
+     * shard that failed go to the local fallback.
+     */
+    @Override
+    public List<String> saveOrders(List<OrderEvent> events) {
+        Map<String, OrderEvent> eventsByKey = byKey(events);
+        Map<String, OrderEvent> failed = writeToRedis(eventsByKey);
+        events.forEach(nearCache::put);
+
+        eventsByKey.keySet().stream().filter(key -> !failed.containsKey(key)).forEach(fallbackCache::remove);
+        failed.forEach(fallbackCache::put);
+        if (failed.isEmpty())
+            logger.info("Batch of {} orders saved to Redis in one pipeline", eventsByKey.size());
+        else
+            logger.error("Redis unavailable. Saved {} of {} orders in the batch to local fallback and queued for retry.",
+                    failed.size(), eventsByKey.size());
+        return new ArrayList<>(eventsByKey.keySet());
+    }
+
+    /**
+     * Writes all orders in one pipeline without the local fallback; callers that keep their own durable copy
+     * (the outbox relay) retry on {@code false}. That copy may be older than Redis (after a restart the relay
+     * rewrites what it wrote before), so PENDING orders are written with SET NX and never overwrite a status, and
+     * the near cache is left to be filled by the next read.
+     */
+    public boolean writeOrdersToRedis(List<OrderEvent> events) {
+        Map<String, OrderEvent> eventsByKey = byKey(events);
+        boolean isRedisOk = writeToRedis(eventsByKey, true).isEmpty();
+        if (isRedisOk)
+            eventsByKey.keySet().forEach(fallbackCache::remove);
+        return isRedisOk;
+    }
+
+    private Map<String, OrderEvent> writeToRedis(Map<String, OrderEvent> eventsByKey) {
+        return writeToRedis(eventsByKey, false);
+    }
+
+    /**
+     * @param pendingIfAbsent write PENDING orders only where the key does not exist yet
+     * @return the orders that were not written
+     */
+    private Map<String, OrderEvent> writeToRedis(Map<String, OrderEvent> eventsByKey, boolean pendingIfAbsent) {
+        List<Map.Entry<String, OrderEvent>> failed = shardRouter.sendPerShard(new ArrayList<>(eventsByKey.entrySet()),
+                Map.Entry::getKey, shard -> tryWriteRedis(Operation.PIPELINE, () -> redis.executePipelined(new SessionCallback<Object>() {
+                    @Override
+                    @SuppressWarnings("unchecked")
+                    public <K, V> Object execute(RedisOperations<K, V> operations) {
+                        RedisOperations<String, Object> ops = (RedisOperations<String, Object>) operations;
+                        for (Map.Entry<String, OrderEvent> entry : shard) {
+                            Duration ttl = ttlPolicy.ttlFor(entry.getValue().getStatus());
+                            if (pendingIfAbsent && entry.getValue().getStatus() == InventoryStatus.PENDING)
+                                ops.opsForValue().setIfAbsent(entry.getKey(), entry.getValue(), ttl);
+                            else
+                                ops.opsForValue().set(entry.getKey(), entry.getValue(), ttl);
+                        }
+                        return null;
+                    }
+                })));
+        Map<String, OrderEvent> failedByKey = new LinkedHashMap<>();
+        failed.forEach(entry -> failedByKey.put(entry.getKey(), entry.getValue()));
+        return failedByKey;
+    }
+
+    private Map<String, OrderEvent> byKey(List<OrderEvent> events) {
+        Map<String, OrderEvent> eventsByKey = new LinkedHashMap<>();
+        events.forEach(event -> eventsByKey.put(buildKey(event.getOrderId()), event));
+        return eventsByKey;
+    }
+
+    private void saveToLocalFallback(String key, OrderEvent event) {
+        fallbackCache.put(key, event);
+    }
+
     private String buildKey(String orderId){
         return Constants.ORDER_PREFIX + orderId;
     }
+
+    /**
+     * Orders that reached Redis are updated in place by a Lua script, one round trip that sends only the status
+     * and cannot lose a concurrent update. Orders still in the local fallback are not in Redis yet, so the updated
+     * copy is saved whole. Throws when Redis is unavailable, so the listener's error handler redelivers the result.
+     */
     @Override
     public void setOrderStatus(String orderId, InventoryStatus status) {
         String key = buildKey(orderId);
-        OrderEvent updatedOrder= tryReadRedis(() -> (OrderEvent) redis.opsForValue().get(key));
+        OrderEvent pendingOrder = heldLocally(key);
+        if (pendingOrder != null) {
+            pendingOrder.setStatus(status);
+            saveOrder(pendingOrder);
+            return;
+        }
 
-        if (updatedOrder == null) {
-            Entry entryLocal = localCache.get(key);
-            if (entryLocal != null && !entryLocal.expired() && entryLocal.value instanceof OrderEvent orderEvent) {
-                updatedOrder = orderEvent;
+        Long result = tryCallRedis(Operation.SET_STATUS, () -> redis.execute(SET_STATUS_SCRIPT, StringRedisSerializer.UTF_8,
+                SCRIPT_RESULT_SERIALIZER, List.of(key), status.name(),
+                String.valueOf((char) OrderEventCodec.statusCode(status)),
+                String.valueOf(ttlPolicy.ttlFor(status).toSeconds())));
+        if (result == null)
+            throw new RedisOperationException("Status " + status + " of order " + orderId + " was not applied, Redis unavailable");
+        if (result == 0L)
+            // the order's write may still be in flight (it is never overwritten by a PENDING copy once this lands)
+            throw new OrderNotStoredException("Order " + orderId + " not found in Redis or local fallback, status "
+                    + status + " not applied yet", Set.of(orderId));
+        if (result != 1L)
+            logger.warn("Order {} in Redis has no status field, status {} not applied", orderId, status);
+        else
+            logger.debug("Order status set in Redis. key={}, status={}", key, status);
+    }
+
+    /**
+     * Applies many updates the way {@link #setOrderStatus} applies one, but the orders in Redis are updated by one
+     * pipeline of status scripts per shard instead of a round trip each. Returns false when a pipeline was not
+     * acknowledged (Redis down, circuit open), so the caller can keep the updates for another attempt; running a
+     * status script twice is harmless. Throws {@link OrderNotStoredException} with the orders Redis does not hold
+     * yet, after the others were applied.
+     */
+    @Override
+    public boolean setOrderStatuses(Map<String, InventoryStatus> statusByOrderId) {
+        List<Map.Entry<String, InventoryStatus>> inRedis = new ArrayList<>(statusByOrderId.size());
+        statusByOrderId.forEach((orderId, status) -> {
+            String key = buildKey(orderId);
+            OrderEvent pendingOrder = heldLocally(key);
+            if (pendingOrder != null) {
+                pendingOrder.setStatus(status);
+                saveOrder(pendingOrder);
+            } else {
+                inRedis.add(Map.entry(key, status));
             }
+        });
+        if (inRedis.isEmpty())
+            return true;
+
+        Set<String> notStored = ConcurrentHashMap.newKeySet();
+        List<Map.Entry<String, InventoryStatus>> failed = shardRouter.sendPerShard(inRedis, Map.Entry::getKey,
+                shard -> tryWriteRedis(Operation.PIPELINE, () -> notStored.addAll(runStatusScripts(shard))));
+        if (!failed.isEmpty()) {
+            logger.error("Redis unavailable. {} of {} status updates not applied", failed.size(), inRedis.size());
+            return false;
+        }
+        if (!notStored.isEmpty())
+            throw new OrderNotStoredException(notStored.size() + " of " + inRedis.size()
+                    + " orders not found in Redis or local fallback, status not applied yet", Set.copyOf(notStored));
+        logger.debug("{} order statuses set in Redis in one pipeline", inRedis.size());
+        return true;
+    }
+
+    /**
+     * @return the orderIds that were not updated because Redis does not hold them
+     */
+    private List<String> runStatusScripts(List<Map.Entry<String, InventoryStatus>> updates) {
+        List<Object> results;
+        try {
+            results = pipelineStatusScripts(updates);
+        } catch (org.springframework.dao.DataAccessException e) {
+            // EVALSHA only works once the script is cached on the node, e.g. not right after a restart or failover
+            if (!String.valueOf(NestedExceptionUtils.getMostSpecificCause(e).getMessage()).contains("NOSCRIPT"))
+                throw e;
+            redis.execute((RedisCallback<String>) connection ->
+                    connection.scriptingCommands().scriptLoad(SET_STATUS_SCRIPT.getScriptAsString().getBytes(StandardCharsets.UTF_8)));
+            results = pipelineStatusScripts(updates);
+        }
+        List<String> notStored = new ArrayList<>();
+        for (int i = 0; i < updates.size(); i++) {
+            Object result = i < results.size() ? results.get(i) : null;
+            if (Long.valueOf(0L).equals(result))
+                notStored.add(updates.get(i).getKey().substring(Constants.ORDER_PREFIX.length()));
+            else if (!Long.valueOf(1L).equals(result))
+                logger.warn("Order {} in Redis has no status field, status not applied", updates.get(i).getKey());
         }
-        assert updatedOrder != null;
-        updatedOrder.setStatus(status);
-        saveOrder(updatedOrder);
+        return notStored;
+    }
+
+    private List<Object> pipelineStatusScripts(List<Map.Entry<String, InventoryStatus>> updates) {
+        byte[] sha = SET_STATUS_SCRIPT.getSha1().getBytes(StandardCharsets.UTF_8);
+        return redis.executePipelined((RedisCallback<Object>) connection -> {
+            for (Map.Entry<String, InventoryStatus> update : updates) {
+                InventoryStatus status = update.getValue();
+                connection.scriptingCommands().evalSha(sha, ReturnType.INTEGER, 1,
+                        StringRedisSerializer.UTF_8.serialize(update.getKey()),
+                        StringRedisSerializer.UTF_8.serialize(status.name()),
+                        StringRedisSerializer.UTF_8.serialize(String.valueOf((char) OrderEventCodec.statusCode(status))),
+                        StringRedisSerializer.UTF_8.serialize(String.valueOf(ttlPolicy.ttlFor(status).toSeconds())));
+            }
+            return null;
+        }, StringRedisSerializer.UTF_8);
+    }
+
+    private OrderEvent heldLocally(String key) {
+        OrderEvent pendingOrder = fallbackCache.get(key);
+        return pendingOrder != null ? pendingOrder : spillLog.get(key);
     }
 
     @Override
     public String getStatus(String orderId) {
-        return null;
+        OrderEvent order = getOrder(orderId);
+        return order == null || order.getStatus() == null ? null : order.getStatus().name();
+    }
+
+    /**
+     * Statuses of many orders in one read: orders held locally are read there, all others with one MGET per shard.
+     * Unlike {@link #getStatus} this skips the near cache, which misses updates consumed by other instances.
+     * Orders not found, or on a shard Redis did not answer, are left out.
+     */
+    @Override
+    public Map<String, InventoryStatus> getStatuses(Collection<String> orderIds) {
+        Map<String, InventoryStatus> statuses = new ConcurrentHashMap<>();
+        List<String> inRedis = new ArrayList<>();
+        for (String orderId : orderIds) {
+            OrderEvent local = heldLocally(buildKey(orderId));
+            if (local == null)
+                inRedis.add(orderId);
+            else if (local.getStatus() != null)
+                statuses.put(orderId, local.getStatus());
+        }
+        shardRouter.sendPerShard(inRedis, this::buildKey, shard -> {
+            List<Object> orders = tryCallRedis(Operation.GET,
+                    () -> redis.opsForValue().multiGet(shard.stream().map(this::buildKey).toList()));
+            if (orders == null)
+                return false;
+            for (Object order : orders)
+                if (order instanceof OrderEvent event && event.getStatus() != null)
+                    statuses.put(event.getOrderId(), event.getStatus());
+            return true;
+        });
+        return statuses;
     }
 
-    private boolean tryWriteRedis(Runnable operation) {
+    private boolean tryWriteRedis(Operation metered, Runnable operation) {
+        CircuitBreaker.Permit permit = redisCircuitBreaker.tryAcquire();
+        if (permit == null) {
+            logger.debug("Redis circuit open, write skipped");
+            return false;
+        }
+        long startNanos = System.nanoTime();
         try {
-            operation.run();
+            redisGuard.run(operation);
+            permit.onSuccess();
+            metrics.recordRedis(metered, startNanos, true);
             return true;
         } catch (org.springframework.dao.DataAccessException ex) {
+            permit.onFailure();
+            metrics.recordRedis(metered, startNanos, false);
             logger.error("Redis data access error: {}", ex.getClass().getSimpleName());
             return false;
         } catch (RuntimeException ex) {
+            metrics.recordRedis(metered, startNanos, false);
             logger.error("Redis runtime error: {}", ex.toString());
             return false;
+        } finally {
+            permit.release();
         }
     }
 
-    private OrderEvent tryReadRedis(java.util.function.Supplier<OrderEvent> op) {
+    private <T> T tryCallRedis(Operation metered, java.util.function.Supplier<T> op) {
+        CircuitBreaker.Permit permit = redisCircuitBreaker.tryAcquire();
+        if (permit == null) {
+            logger.debug("Redis circuit open, {} skipped", metered);
+            return null;
+        }
+        long startNanos = System.nanoTime();
         try {
-            return op.get();
+            T result = redisGuard.call(op);
+            permit.onSuccess();
+            metrics.recordRedis(metered, startNanos, true);
+            return result;
+        } catch (org.springframework.dao.DataAccessException exception) {
+            permit.onFailure();
+            metrics.recordRedis(metered, startNanos, false);
+            logger.error("Redis {} failed: {}", metered, exception.getClass().getSimpleName());
+            return null;
         } catch (Exception exception) {
-            logger.error("Redis read failed: {}", exception.getClass().getSimpleName());
+            metrics.recordRedis(metered, startNanos, false);
+            logger.error("Redis {} failed: {}", metered, exception.getClass().getSimpleName());
             return null;
+        } finally {
+            permit.release();
         }
     }
 
+    public int pendingCount() {
+        return fallbackCache.size() + spillLog.size();
+    }
+
+    /**
+     * Writes the fallback back to Redis in pipelined chunks of {@code app.cache.flush.chunkSize}, sent by
+     * {@code app.cache.flush.parallelism} workers and paced to {@code app.cache.flush.maxOrdersPerSecond}
+     * so a Redis that just came back is not flooded. Stops at the first failed chunk; the rest stays for the next run.
+     */
     @Scheduled(fixedDelayString = "${app.cache.redisRetryInterval:15000}")
     public void flushPendingToRedis() {
-        if (pendingItemsToStoreInRedis.isEmpty())
+        // also started when the Redis circuit closes, so it may overlap with the scheduled run
+        if (!flushing.compareAndSet(false, true))
             return;
+        try {
+            flushPending();
+        } finally {
+            flushing.set(false);
+        }
+    }
 
-        pendingItemsToStoreInRedis.forEach((key, entry) -> {
-            if (entry.expired()) {
-                localCache.remove(key);
-                pendingItemsToStoreInRedis.remove(key);
-                logger.debug("Flushed pending order key={}", key);
-                return;
-            }
-            if (tryWriteRedis(() -> redis.opsForValue().set(key, entry.value))) {
-                pendingItemsToStoreInRedis.remove(key);
-                logger.debug("Redis Up ,Flushed pending order from cache, adding to Redis. key={}", key);
+    private void flushPending() {
+        // spilled orders are older than the ones still on the heap
+        if (!spillLog.replay() || fallbackCache.isEmpty())
+            return;
+
+        List<Map<String, OrderEvent>> chunks = new ArrayList<>();
+        Map<String, OrderEvent> chunk = new LinkedHashMap<>();
+        fallbackCache.forEach((key, event) -> {
+            chunk.put(key, event);
+            if (chunk.size() == flushChunkSize) {
+                chunks.add(new LinkedHashMap<>(chunk));
+                chunk.clear();
             }
         });
+        if (!chunk.isEmpty())
+            chunks.add(chunk);
+
+        int total = chunks.stream().mapToInt(Map::size).sum();
+        logger.info("Flushing {} pending orders to Redis in {} chunks", total, chunks.size());
+
+        long startedAt = System.nanoTime();
+        long nanosPerOrder = flushMaxOrdersPerSecond > 0 ? TimeUnit.SECONDS.toNanos(1) / flushMaxOrdersPerSecond : 0;
+        AtomicLong nextSendAt = new AtomicLong(startedAt);
+        AtomicInteger nextChunk = new AtomicInteger();
+        AtomicInteger written = new AtomicInteger();
+        AtomicBoolean failed = new AtomicBoolean();
+        AtomicLong lastProgressAt = new AtomicLong(startedAt);
+
+        Runnable worker = () -> {
+            int index;
+            while (!failed.get() && (index = nextChunk.getAndIncrement()) < chunks.size()) {
+                Map<String, OrderEvent> eventsByKey = chunks.get(index);
+                metrics.recordFlushBatch(eventsByKey.size());
+                long waitNanos = nextSendAt.getAndAdd(nanosPerOrder * eventsByKey.size()) - System.nanoTime();
+                if (waitNanos > 0)
+                    LockSupport.parkNanos(waitNanos);
+
+                Map<String, OrderEvent> notWritten = writeToRedis(eventsByKey);
+                eventsByKey.forEach((key, event) -> {
+                    if (!notWritten.containsKey(key))
+                        fallbackCache.removeIfUnchanged(key, event);
+                });
+                reportFlushProgress(written.addAndGet(eventsByKey.size() - notWritten.size()), total, startedAt, lastProgressAt);
+                if (!notWritten.isEmpty()) {
+                    failed.set(true);
+                    return;
+                }
+            }
+        };
+
+        // the scheduler thread is one of the workers, the others only live for this flush
+        int helpers = Math.min(flushParallelism, chunks.size()) - 1;
+        ExecutorService executor = helpers > 0 ? Executors.newFixedThreadPool(helpers) : null;
+        try {
+            List<CompletableFuture<Void>> running = new ArrayList<>();
+            for (int i = 0; i < helpers; i++)
+                running.add(CompletableFuture.runAsync(worker, executor));
+            worker.run();
+            running.forEach(CompletableFuture::join);
+        } finally {
+            if (executor != null)
+                executor.shutdown();
+        }
+
+        metrics.recordFlush(startedAt);
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+        if (failed.get())
+            logger.warn("Redis flush stopped after {} of {} orders in {} ms, remaining backlog={}",
+                    written.get(), total, elapsedMillis, fallbackCache.size());
+        else
+            logger.info("Redis flush wrote {} orders in {} ms, remaining backlog={}",
+                    written.get(), elapsedMillis, fallbackCache.size());
     }
 
-    public OrderEvent getOrder(String orderId) {
-        String key = buildKey(orderId);
+    private void reportFlushProgress(int written, int total, long startedAt, AtomicLong lastProgressAt) {
+        long now = System.nanoTime();
+        long last = lastProgressAt.get();
+        if (now - last < FLUSH_PROGRESS_INTERVAL_NANOS || !lastProgressAt.compareAndSet(last, now))
+            return;
 
-        OrderEvent fromRedis = tryReadRedis(() -> (OrderEvent) redis.opsForValue().get(key));
-        if (fromRedis != null)
-            return fromRedis;
+        double perSecond = written / ((now - startedAt) / 1e9);
+        long etaSeconds = perSecond > 0 ? (long) ((total - written) / perSecond) : -1;
+        logger.info("Redis flush progress: {}/{} orders, {} orders/s, remaining backlog={}, eta {}s",
+                written, total, (long) perSecond, fallbackCache.size(), etaSeconds);
+    }
 
-        Entry entry = localCache.get(key);
-        if (entry == null || entry.expired()) {
-            localCache.remove(key);
-            pendingItemsToStoreInRedis.remove(key);
-            return null;
+    @Override
+    public OrderEvent getOrder(String orderId) {
+        OrderEvent fromNearCache = nearCache.get(orderId);
+        if (fromNearCache != null) {
+            metrics.recordRead(Source.NEAR);
+            return fromNearCache;
         }
 
-        if (tryWriteRedis(() -> redis.opsForValue().set(key, entry.value))) {
-            pendingItemsToStoreInRedis.remove(key);
+        String key = buildKey(orderId);
+
+        // not in Redis yet, the flush job writes it once Redis is back
+        OrderEvent fromFallback = fallbackCache.get(key);
+        if (fromFallback != null) {
+            metrics.recordRead(Source.FALLBACK);
+            return fromFallback;
+        }
+        OrderEvent fromSpill = spillLog.get(key);
+        if (fromSpill != null) {
+            metrics.recordRead(Source.SPILL);
+            return fromSpill;
         }
-        return (OrderEvent) entry.value;
+
+        OrderEvent fromRedis = tryCallRedis(Operation.GET, () -> (OrderEvent) commandCoalescer.get(key));
+        metrics.recordRead(fromRedis != null ? Source.REDIS : Source.MISS);
+        if (fromRedis != null)
+            nearCache.put(fromRedis);
+        return fromRedis;
     }
 
 }
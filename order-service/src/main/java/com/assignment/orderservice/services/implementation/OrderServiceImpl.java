@@ -1,18 +1,33 @@
 package com.assignment.orderservice.services.implementation;
 
+import com.assignment.commonmodel.model.InventoryStatus;
 import com.assignment.commonmodel.model.OrderEvent;
 import com.assignment.commonmodel.constants.Messages;
+import com.assignment.orderservice.cache.IdempotencyStore;
+import com.assignment.orderservice.errorhandling.exceptions.ConcurrencyLimitException;
+import com.assignment.orderservice.errorhandling.exceptions.KafkaPublishException;
+import com.assignment.orderservice.errorhandling.exceptions.OrderInProgressException;
 import com.assignment.orderservice.errorhandling.exceptions.OrderProcessingException;
+import com.assignment.orderservice.ids.OrderIdGenerator;
 import com.assignment.orderservice.mappers.OrderMapper;
 import com.assignment.orderservice.model.OrderRequest;
+import com.assignment.orderservice.outbox.OrderOutbox;
 import com.assignment.orderservice.model.OrderResponse;
 import com.assignment.orderservice.services.interfaces.OrderService;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
-import java.util.UUID;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeoutException;
 
 @Service
 @RequiredArgsConstructor
@@ -20,32 +35,154 @@ public class OrderServiceImpl implements OrderService {
     private static final Logger logger = LoggerFactory.getLogger(OrderServiceImpl.class);
     private final KafkaPublisherImpl kafkaPublisherService;
     private final OrderCacheServiceImpl orderCacheService;
+    private final OrderOutbox orderOutbox;
+    private final IdempotencyStore idempotencyStore;
+    private final OrderIdGenerator orderIdGenerator;
 
+    @Value("${app.orders.createTimeout:PT5S}")
+    private Duration createTimeout = Duration.ofSeconds(5);
+
+    /**
+     * Non-blocking write path: the Redis write and the Kafka send start together and the order is confirmed
+     * once both completed, so latency is the slower of the two instead of their sum.
+     * A Kafka failure or a missed deadline is passed to the caller as is, anything else is an OrderProcessingException.
+     * With the outbox enabled the order is accepted once it is on local disk and the outbox relay delivers it later.
+     */
+    @Override
+    public Mono<OrderResponse> createOrder(OrderRequest request) {
+        return createOrder(request, null);
+    }
+
+    /**
+     * A request carrying an Idempotency-Key creates the order only for the first claim of the key;
+     * a retry gets the order created for it. A failed create releases the key so the retry goes through. A create
+     * that missed its deadline keeps the key: its Redis write and Kafka send may still succeed, so a retry gets this
+     * order instead of creating a duplicate. While that order is not stored the retry fails with an
+     * OrderInProgressException rather than answering with an order that may never exist.
+     */
     @Override
-    public OrderResponse createOrder(OrderRequest request) {
+    public Mono<OrderResponse> createOrder(OrderRequest request, String idempotencyKey) {
 
         logger.info("createOrder() - Creating order for customer: {}", request.getCustomerName());
         logger.debug("Order details: {}", request);
 
-        String orderId = UUID.randomUUID().toString();
-        final OrderEvent event;
+        String orderId = orderIdGenerator.nextId();
+        if (idempotencyKey == null || idempotencyKey.isBlank())
+            return create(request, orderId);
+
+        return idempotencyStore.claim(idempotencyKey, orderId)
+                .flatMap(ownerId -> {
+                    if (ownerId.equals(orderId))
+                        return create(request, orderId)
+                                .onErrorResume(e -> e instanceof TimeoutException
+                                        ? Mono.error(e)
+                                        : idempotencyStore.release(idempotencyKey, orderId).then(Mono.error(e)));
+
+                    logger.info("Duplicate request for idempotency key {}, returning orderId={}", idempotencyKey, ownerId);
+                    return findCreated(ownerId);
+                });
+    }
+
+    private Mono<OrderResponse> findCreated(String orderId) {
+        // the first request may still be in flight, in which case the order is not stored yet
+        return Mono.fromCallable(() -> orderCacheService.getOrder(orderId))
+                .subscribeOn(Schedulers.boundedElastic())
+                .switchIfEmpty(Mono.error(() -> new OrderInProgressException(
+                        "Order " + orderId + " is still being created", orderId)))
+                .map(event -> OrderMapper.toResponse(event, Messages.CREATED_ORDERS));
+    }
+
+    private Mono<OrderResponse> create(OrderRequest request, String orderId) {
+
+        final OrderEvent event = OrderMapper.toEvent(request, orderId);
+
+        Mono<?> accepted = orderOutbox.isEnabled()
+                ? orderOutbox.append(event)
+                        .doOnSuccess(ignored -> logger.info("Order appended to outbox, orderId={}", orderId))
+                : Mono.zip(
+                        orderCacheService.saveOrderReactive(event)
+                                .doOnNext(key -> logger.debug("Order saved to Redis with key={}", key)),
+                        kafkaPublisherService.publishOrderCreated(event)
+                                .doOnNext(result -> logger.info("Order sent to Kafka topic=orders, orderId={}", orderId)));
+
+        return accepted
+                .timeout(createTimeout)
+                .thenReturn(OrderMapper.toResponse(event, Messages.CREATED_ORDERS))
+                .onErrorMap(e -> {
+                    logger.error("Unexpected error for orderId={}", orderId, e);
+                    if (e instanceof KafkaPublishException || e instanceof TimeoutException
+                            || e instanceof ConcurrencyLimitException)
+                        return e;
+                    return new OrderProcessingException("Error occurred during the process ", e);
+                });
+    }
+
+    @Override
+    public List<OrderResponse> createOrders(List<OrderRequest> requests) {
 
+        logger.info("createOrders() - Creating batch of {} orders", requests.size());
 
-        event = OrderMapper.toEvent(request, orderId);
+        List<OrderEvent> events = requests.stream()
+                .map(request -> OrderMapper.toEvent(request, orderIdGenerator.nextId()))
+                .toList();
 
+        final Set<String> failedOrderIds;
         try {
-            String key = orderCacheService.saveOrder(event);
-            logger.debug("Order saved to Redis with key={}", key);
+            if (orderOutbox.isEnabled()) {
+                orderOutbox.appendAll(events);
+                logger.info("Batch of {} orders appended to outbox", events.size());
+                return events.stream()
+                        .map(event -> OrderMapper.toResponse(event, Messages.CREATED_ORDERS))
+                        .toList();
+            }
+
+            orderCacheService.saveOrders(events);
+            logger.debug("Batch of {} orders saved to Redis", events.size());
 
-            kafkaPublisherService.publishOrderCreated(event);
-            logger.info("Order sent to Kafka topic=orders, orderId={}", orderId);
+            failedOrderIds = kafkaPublisherService.publishOrdersCreated(events, createTimeout);
+            logger.info("Batch of {} orders sent to Kafka topic=orders, failed={}", events.size(), failedOrderIds.size());
 
-        }catch (Exception e) {
-            logger.error("Unexpected error for orderId={}", orderId, e);
-            throw new OrderProcessingException("Error occurred during the process ", e);
+        } catch (Exception e) {
+            logger.error("Unexpected error for batch of {} orders", events.size(), e);
+            throw new OrderProcessingException("Error occurred during the batch process ", e);
         }
 
-        return OrderMapper.toResponse(event, Messages.CREATED_ORDERS);
+        if (!failedOrderIds.isEmpty())
+            rejectStored(failedOrderIds);
+
+        return events.stream()
+                .map(event -> {
+                    if (!failedOrderIds.contains(event.getOrderId()))
+                        return OrderMapper.toResponse(event, Messages.CREATED_ORDERS);
+                    event.setStatus(InventoryStatus.REJECTED);
+                    return OrderMapper.toResponse(event, Messages.FAILED_ORDER);
+                })
+                .toList();
+    }
+
+    /**
+     * Orders whose Kafka send failed were already saved as PENDING; without a status they would stay PENDING
+     * although no inventory check ever runs for them, so they are stored as REJECTED, the way the response says.
+     */
+    private void rejectStored(Set<String> orderIds) {
+        Map<String, InventoryStatus> rejected = new HashMap<>();
+        orderIds.forEach(orderId -> rejected.put(orderId, InventoryStatus.REJECTED));
+        try {
+            if (!orderCacheService.setOrderStatuses(rejected))
+                logger.error("Redis unavailable. {} unpublished orders stay PENDING: {}", orderIds.size(), orderIds);
+        } catch (RuntimeException e) {
+            logger.error("Could not store REJECTED for {} unpublished orders: {}", orderIds.size(), orderIds, e);
+        }
+    }
+
+    @Override
+    public OrderResponse getOrder(String orderId) {
+        OrderEvent event = orderCacheService.getOrder(orderId);
+        if (event == null) {
+            logger.debug("Order {} not found", orderId);
+            return null;
+        }
+        return OrderMapper.toResponse(event, Messages.FOUND_ORDER);
     }
 
 }
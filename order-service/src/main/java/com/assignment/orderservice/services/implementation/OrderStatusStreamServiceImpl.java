@@ -0,0 +1,153 @@
+package com.assignment.orderservice.services.implementation;
+
+import com.assignment.commonmodel.model.InventoryStatus;
+import com.assignment.orderservice.model.OrderStatusUpdate;
+import com.assignment.orderservice.services.interfaces.OrderStatusStreamService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes order status changes to clients over Server-Sent Events.
+ *
+ * <p>Waiters are kept per orderId as a small copy-on-write array, and an {@link SseEmitter} is an async
+ * servlet response, so an open stream costs no thread. A stream ends once the order is APPROVED or REJECTED,
+ * or when {@code app.statusStream.timeout} passes and the client reconnects.
+ * Only the instance that consumes an order's result is notified directly, so waiting orders are also
+ * re-checked against Redis every {@code app.statusStream.recheckInterval}, all of them in one read.
+ *
+ * <p>Published statuses are written to the clients by {@code app.statusStream.sendThreads} threads of their own, so a
+ * slow client never holds up the Kafka consumer that applies the statuses.
+ */
+@Service
+public class OrderStatusStreamServiceImpl implements OrderStatusStreamService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderStatusStreamServiceImpl.class);
+    private final OrderCacheServiceImpl orderCacheService;
+    private final ExecutorService sender;
+    private final Map<String, SseEmitter[]> subscribers = new ConcurrentHashMap<>();
+
+    @Value("${app.statusStream.timeout:PT60S}")
+    private Duration timeout = Duration.ofSeconds(60);
+
+    public OrderStatusStreamServiceImpl(OrderCacheServiceImpl orderCacheService,
+                                        @Value("${app.statusStream.sendThreads:8}") int sendThreads) {
+        this.orderCacheService = orderCacheService;
+        AtomicInteger threads = new AtomicInteger();
+        this.sender = Executors.newFixedThreadPool(sendThreads, task -> {
+            Thread thread = new Thread(task, "status-stream-" + threads.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void close() {
+        sender.shutdownNow();
+    }
+
+    @Override
+    public SseEmitter subscribe(String orderId) {
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        emitter.onCompletion(() -> unregister(orderId, emitter));
+        emitter.onTimeout(() -> {
+            unregister(orderId, emitter);
+            emitter.complete();
+        });
+        emitter.onError(exception -> unregister(orderId, emitter));
+
+        // register before reading the status, so an update arriving in between is not missed
+        register(orderId, emitter);
+        String status = orderCacheService.getStatus(orderId);
+        if (status == null) {
+            unregister(orderId, emitter);
+            return null;
+        }
+
+        send(orderId, emitter, InventoryStatus.valueOf(status));
+        return emitter;
+    }
+
+    @Override
+    public void publish(String orderId, InventoryStatus status) {
+        SseEmitter[] emitters = isFinal(status) ? subscribers.remove(orderId) : subscribers.get(orderId);
+        if (emitters == null)
+            return;
+
+        logger.debug("Pushing status {} of order {} to {} subscribers", status, orderId, emitters.length);
+        for (SseEmitter emitter : emitters) {
+            try {
+                sender.execute(() -> send(orderId, emitter, status));
+            } catch (RejectedExecutionException e) {
+                // shutting down, the client reconnects elsewhere
+                emitter.complete();
+            }
+        }
+    }
+
+    public int subscriberCount(String orderId) {
+        SseEmitter[] emitters = subscribers.get(orderId);
+        return emitters == null ? 0 : emitters.length;
+    }
+
+    @Scheduled(fixedDelayString = "${app.statusStream.recheckInterval:5000}")
+    public void recheckWaiting() {
+        if (subscribers.isEmpty())
+            return;
+        orderCacheService.getStatuses(List.copyOf(subscribers.keySet())).forEach((orderId, status) -> {
+            if (isFinal(status))
+                publish(orderId, status);
+        });
+    }
+
+    private void send(String orderId, SseEmitter emitter, InventoryStatus status) {
+        try {
+            emitter.send(SseEmitter.event()
+                    .name("status")
+                    .data(new OrderStatusUpdate(orderId, status)));
+            if (isFinal(status)) {
+                unregister(orderId, emitter);
+                emitter.complete();
+            }
+        } catch (IOException | IllegalStateException e) {
+            logger.debug("Status stream for order {} closed: {}", orderId, e.toString());
+            unregister(orderId, emitter);
+        }
+    }
+
+    private static boolean isFinal(InventoryStatus status) {
+        return status != InventoryStatus.PENDING;
+    }
+
+    private void register(String orderId, SseEmitter emitter) {
+        subscribers.merge(orderId, new SseEmitter[]{emitter}, (current, added) -> {
+            SseEmitter[] merged = Arrays.copyOf(current, current.length + 1);
+            merged[current.length] = emitter;
+            return merged;
+        });
+    }
+
+    private void unregister(String orderId, SseEmitter emitter) {
+        subscribers.computeIfPresent(orderId, (id, current) -> {
+            SseEmitter[] remaining = Arrays.stream(current)
+                    .filter(existing -> existing != emitter)
+                    .toArray(SseEmitter[]::new);
+            return remaining.length == 0 ? null : remaining;
+        });
+    }
+}
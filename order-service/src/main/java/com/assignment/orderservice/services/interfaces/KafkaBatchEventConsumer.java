@@ -0,0 +1,10 @@
+package com.assignment.orderservice.services.interfaces;
+
+import com.assignment.commonmodel.model.InventoryCheckResultEvent;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+
+import java.util.List;
+
+public interface KafkaBatchEventConsumer {
+    void consumeInventoryResults(List<ConsumerRecord<String, InventoryCheckResultEvent>> records);
+}
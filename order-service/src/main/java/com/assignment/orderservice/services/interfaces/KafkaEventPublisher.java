@@ -1,7 +1,14 @@
 package com.assignment.orderservice.services.interfaces;
 
 import com.assignment.commonmodel.model.OrderEvent;
+import org.springframework.kafka.support.SendResult;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
 
 public interface KafkaEventPublisher {
-    void publishOrderCreated(OrderEvent event);
+    Mono<SendResult<String, Object>> publishOrderCreated(OrderEvent event);
+    Set<String> publishOrdersCreated(List<OrderEvent> events, Duration timeout);
 }
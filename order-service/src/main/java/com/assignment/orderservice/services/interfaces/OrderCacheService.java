@@ -3,8 +3,20 @@ package com.assignment.orderservice.services.interfaces;
 import com.assignment.commonmodel.model.InventoryStatus;
 import com.assignment.commonmodel.model.OrderEvent;
 
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
 public interface OrderCacheService {
     String saveOrder(OrderEvent event);
+    Mono<String> saveOrderReactive(OrderEvent event);
+    List<String> saveOrders(List<OrderEvent> events);
     void setOrderStatus(String orderId, InventoryStatus status);
+    boolean setOrderStatuses(Map<String, InventoryStatus> statusByOrderId);
     String getStatus(String orderId);
+
+    Map<String, InventoryStatus> getStatuses(Collection<String> orderIds);
+    OrderEvent getOrder(String orderId);
 }
@@ -2,8 +2,14 @@ package com.assignment.orderservice.services.interfaces;
 
 import com.assignment.orderservice.model.OrderRequest;
 import com.assignment.orderservice.model.OrderResponse;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
 
 public interface OrderService {
-    OrderResponse createOrder(OrderRequest request);
+    Mono<OrderResponse> createOrder(OrderRequest request);
+    Mono<OrderResponse> createOrder(OrderRequest request, String idempotencyKey);
+    List<OrderResponse> createOrders(List<OrderRequest> requests);
+    OrderResponse getOrder(String orderId);
 
 }
@@ -0,0 +1,9 @@
+package com.assignment.orderservice.services.interfaces;
+
+import com.assignment.commonmodel.model.InventoryStatus;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+public interface OrderStatusStreamService {
+    SseEmitter subscribe(String orderId);
+    void publish(String orderId, InventoryStatus status);
+}
@@ -0,0 +1,26 @@
+-- Replaces the top-level status of a stored order in place and sets the TTL for the new status.
+-- KEYS[1] order key, ARGV[1] new status name (JSON values), ARGV[2] new status code (binary values),
+-- ARGV[3] TTL in seconds
+-- Returns 1 when updated, 0 when the order does not exist, -1 when it has no status field.
+local magic = redis.call('GETRANGE', KEYS[1], 0, 0)
+if magic == '' then
+    return 0
+end
+
+-- binary orders (OrderEventCodec) keep the status at a fixed offset
+if magic == '\177' then
+    redis.call('SETRANGE', KEYS[1], 2, ARGV[2])
+    redis.call('EXPIRE', KEYS[1], ARGV[3])
+    return 1
+end
+
+local order = redis.call('GET', KEYS[1])
+
+-- string values are JSON-escaped, so only the order's own field can match "status":"..."
+local updated, count = string.gsub(order, '"status":"[A-Z_]*"', '"status":"' .. ARGV[1] .. '"', 1)
+if count == 0 then
+    return -1
+end
+
+redis.call('SET', KEYS[1], updated, 'EX', ARGV[3])
+return 1
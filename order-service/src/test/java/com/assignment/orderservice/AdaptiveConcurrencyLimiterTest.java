@@ -0,0 +1,72 @@
+package com.assignment.orderservice;
+
+import com.assignment.orderservice.concurrency.AdaptiveConcurrencyLimiter;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    @Test
+    void tryAcquire_atLimit_rejectsUntilPermitReleased() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 2, 10, () -> 0, 100, Duration.ofSeconds(10));
+
+        AdaptiveConcurrencyLimiter.Permit first = limiter.tryAcquire();
+        AdaptiveConcurrencyLimiter.Permit second = limiter.tryAcquire();
+
+        assertThat(first).isNotNull();
+        assertThat(second).isNotNull();
+        assertThat(limiter.tryAcquire()).isNull();
+        assertThat(limiter.getRejectedByLimit()).isEqualTo(1);
+
+        first.ignore();
+        first.ignore();
+        assertThat(limiter.getInFlight()).isEqualTo(1);
+        assertThat(limiter.tryAcquire()).isNotNull();
+    }
+
+    @Test
+    void tryAcquire_backlogFull_rejects() {
+        AtomicInteger backlog = new AtomicInteger(100);
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 1, 10, backlog::get, 100, Duration.ofSeconds(10));
+
+        assertThat(limiter.tryAcquire()).isNull();
+        assertThat(limiter.getRejectedByBacklog()).isEqualTo(1);
+
+        backlog.set(99);
+        assertThat(limiter.tryAcquire()).isNotNull();
+    }
+
+    @Test
+    void dropped_shrinksLimit_downToMinimum() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(100, 50, 200, () -> 0, 100, Duration.ofSeconds(10));
+
+        limiter.tryAcquire().dropped();
+        assertThat(limiter.getLimit()).isEqualTo(90);
+
+        for (int i = 0; i < 20; i++)
+            limiter.tryAcquire().dropped();
+        assertThat(limiter.getLimit()).isEqualTo(50);
+    }
+
+    @Test
+    void success_withSteadyLatencyAndFullUse_growsLimit() throws InterruptedException {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 1, 100, () -> 0, 100, Duration.ofSeconds(10));
+
+        for (int round = 0; round < 5; round++) {
+            List<AdaptiveConcurrencyLimiter.Permit> permits = new ArrayList<>();
+            AdaptiveConcurrencyLimiter.Permit permit;
+            while ((permit = limiter.tryAcquire()) != null)
+                permits.add(permit);
+            Thread.sleep(20);
+            permits.forEach(AdaptiveConcurrencyLimiter.Permit::success);
+        }
+
+        assertThat(limiter.getLimit()).isGreaterThan(10);
+    }
+}
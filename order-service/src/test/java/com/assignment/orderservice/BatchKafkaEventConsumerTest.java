@@ -0,0 +1,101 @@
+package com.assignment.orderservice;
+
+import com.assignment.commonmodel.model.InventoryCheckResultEvent;
+import com.assignment.commonmodel.model.InventoryStatus;
+import com.assignment.orderservice.cache.OrderNearCache;
+import com.assignment.orderservice.errorhandling.exceptions.OrderNotStoredException;
+import com.assignment.orderservice.errorhandling.exceptions.RedisOperationException;
+import com.assignment.orderservice.services.implementation.BatchKafkaEventConsumerImpl;
+import com.assignment.orderservice.services.interfaces.OrderCacheService;
+import com.assignment.orderservice.services.interfaces.OrderStatusStreamService;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class BatchKafkaEventConsumerTest {
+
+    private OrderCacheService orderCacheService;
+    private OrderNearCache orderNearCache;
+    private OrderStatusStreamService orderStatusStreamService;
+    private BatchKafkaEventConsumerImpl consumer;
+
+    @BeforeEach
+    void setUp() {
+        orderCacheService = mock(OrderCacheService.class);
+        orderNearCache = mock(OrderNearCache.class);
+        orderStatusStreamService = mock(OrderStatusStreamService.class);
+        consumer = new BatchKafkaEventConsumerImpl(orderCacheService, orderNearCache, orderStatusStreamService);
+    }
+
+    @Test
+    void consumeInventoryResults_appliesTheLastKnownStatusPerOrder_inOneCall() {
+        when(orderCacheService.setOrderStatuses(anyMap())).thenReturn(true);
+
+        consumer.consumeInventoryResults(List.of(
+                result(0, "o-1", InventoryStatus.REJECTED),
+                result(1, "o-2", InventoryStatus.APPROVED),
+                new ConsumerRecord<>("inventory-results", 0, 2, "bad", null),
+                result(3, "o-1", InventoryStatus.APPROVED),
+                result(4, "o-3", null)));
+
+        verify(orderCacheService, times(1)).setOrderStatuses(
+                Map.of("o-1", InventoryStatus.APPROVED, "o-2", InventoryStatus.APPROVED));
+        verify(orderNearCache).updateStatus("o-1", InventoryStatus.APPROVED);
+        verify(orderStatusStreamService).publish("o-1", InventoryStatus.APPROVED);
+        verify(orderStatusStreamService).publish("o-2", InventoryStatus.APPROVED);
+        verify(orderStatusStreamService, never()).publish("o-1", InventoryStatus.REJECTED);
+        verify(orderStatusStreamService, never()).publish(eq("o-3"), any());
+    }
+
+    @Test
+    void consumeInventoryResults_redisDidNotAcknowledge_throwsSoThePollIsRedelivered() {
+        when(orderCacheService.setOrderStatuses(anyMap())).thenReturn(false);
+
+        assertThrows(RedisOperationException.class, () ->
+                consumer.consumeInventoryResults(List.of(result(0, "o-1", InventoryStatus.APPROVED))));
+
+        verify(orderNearCache, never()).updateStatus(any(), any());
+        verify(orderStatusStreamService, never()).publish(any(), any());
+    }
+
+    @Test
+    void consumeInventoryResults_orderNotStoredYet_appliesTheOthers_andRedeliversFromItsFirstRecord() {
+        when(orderCacheService.setOrderStatuses(anyMap()))
+                .thenThrow(new OrderNotStoredException("not stored", Set.of("o-2")));
+
+        BatchListenerFailedException failure = assertThrows(BatchListenerFailedException.class, () ->
+                consumer.consumeInventoryResults(List.of(
+                        result(0, "o-1", InventoryStatus.APPROVED),
+                        result(1, "o-2", InventoryStatus.REJECTED),
+                        result(2, "o-3", InventoryStatus.APPROVED),
+                        result(3, "o-2", InventoryStatus.APPROVED))));
+
+        assertEquals(1, failure.getIndex());
+        assertInstanceOf(OrderNotStoredException.class, failure.getCause());
+        verify(orderStatusStreamService).publish("o-1", InventoryStatus.APPROVED);
+        verify(orderStatusStreamService).publish("o-3", InventoryStatus.APPROVED);
+        verify(orderStatusStreamService, never()).publish(eq("o-2"), any());
+        verify(orderNearCache, never()).updateStatus(eq("o-2"), any());
+    }
+
+    private static ConsumerRecord<String, InventoryCheckResultEvent> result(long offset, String orderId, InventoryStatus status) {
+        InventoryCheckResultEvent event = new InventoryCheckResultEvent();
+        event.setOrderId(orderId);
+        if (status != null) // as the codec leaves a status it does not know
+            event.setStatus(status);
+        return new ConsumerRecord<>("inventory-results", 0, offset, orderId, event);
+    }
+}
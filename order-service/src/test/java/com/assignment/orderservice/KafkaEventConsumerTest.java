@@ -0,0 +1,49 @@
+package com.assignment.orderservice;
+
+import com.assignment.commonmodel.model.InventoryCheckResultEvent;
+import com.assignment.commonmodel.model.InventoryStatus;
+import com.assignment.orderservice.cache.OrderNearCache;
+import com.assignment.orderservice.services.implementation.KafkaEventConsumerImpl;
+import com.assignment.orderservice.services.interfaces.OrderCacheService;
+import com.assignment.orderservice.services.interfaces.OrderStatusStreamService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+
+public class KafkaEventConsumerTest {
+
+    private OrderCacheService orderCacheService;
+    private OrderNearCache orderNearCache;
+    private OrderStatusStreamService orderStatusStreamService;
+    private KafkaEventConsumerImpl consumer;
+
+    @BeforeEach
+    void setUp() {
+        orderCacheService = mock(OrderCacheService.class);
+        orderNearCache = mock(OrderNearCache.class);
+        orderStatusStreamService = mock(OrderStatusStreamService.class);
+        consumer = new KafkaEventConsumerImpl(orderCacheService, orderNearCache, orderStatusStreamService);
+    }
+
+    @Test
+    void consumeInventoryResult_appliesTheStatus() {
+        consumer.consumeInventoryResult(new InventoryCheckResultEvent("o-1", InventoryStatus.APPROVED, List.of()));
+
+        verify(orderCacheService).setOrderStatus("o-1", InventoryStatus.APPROVED);
+        verify(orderNearCache).updateStatus("o-1", InventoryStatus.APPROVED);
+        verify(orderStatusStreamService).publish("o-1", InventoryStatus.APPROVED);
+    }
+
+    @Test
+    void consumeInventoryResult_unknownStatus_isSkipped() {
+        InventoryCheckResultEvent event = new InventoryCheckResultEvent();
+        event.setOrderId("o-1");
+
+        consumer.consumeInventoryResult(event);
+
+        verifyNoInteractions(orderCacheService, orderNearCache, orderStatusStreamService);
+    }
+}
@@ -0,0 +1,143 @@
+package com.assignment.orderservice;
+
+import com.assignment.commonmodel.kafka.BinaryEventSerializer;
+import com.assignment.commonmodel.kafka.ProducerProfile;
+import com.assignment.commonmodel.model.Category;
+import com.assignment.commonmodel.model.InventoryStatus;
+import com.assignment.commonmodel.model.OrderEvent;
+import com.assignment.commonmodel.model.OrderItem;
+import com.assignment.orderservice.ids.SnowflakeOrderIdGenerator;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Throughput and send latency (send() to broker ack) of each {@link ProducerProfile} against a local embedded broker,
+ * with the order producer's serializers and durability settings and OrderEvents of 1-5 items. Two runs per profile:
+ * a burst of {@code benchmark.records} sent as fast as possible (peak records/s; its latency is mostly time queued
+ * in the producer buffer), and a paced run at {@code benchmark.rate} records/s for the latency a request sees
+ * below saturation.
+ *
+ * <pre>mvn -pl order-service -am test -Dtest=KafkaProducerProfileBenchmarkTest -Dsurefire.failIfNoSpecifiedTests=false -Dbenchmark=true</pre>
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class KafkaProducerProfileBenchmarkTest {
+
+    private static final String TOPIC = "orders-benchmark";
+    private static final int WARMUP_RECORDS = 20_000;
+    private static final int RECORDS = Integer.getInteger("benchmark.records", 200_000);
+    private static final int PACED_RATE = Integer.getInteger("benchmark.rate", 5_000);
+
+    private static EmbeddedKafkaKraftBroker broker;
+
+    @BeforeAll
+    static void startBroker() {
+        broker = new EmbeddedKafkaKraftBroker(1, 3, TOPIC);
+        broker.afterPropertiesSet();
+    }
+
+    @AfterAll
+    static void stopBroker() {
+        broker.destroy();
+    }
+
+    @Test
+    void compareProfiles() throws InterruptedException {
+        List<OrderEvent> orders = orders(10_000);
+        for (ProducerProfile profile : ProducerProfile.values()) {
+            try (KafkaProducer<String, OrderEvent> producer = new KafkaProducer<>(config(profile))) {
+                run(producer, orders, WARMUP_RECORDS, new long[WARMUP_RECORDS], 0);
+
+                long[] burst = new long[RECORDS];
+                long startedAt = System.nanoTime();
+                run(producer, orders, RECORDS, burst, 0);
+                double seconds = (System.nanoTime() - startedAt) / 1e9;
+
+                long[] paced = new long[PACED_RATE * 5];
+                run(producer, orders, paced.length, paced, TimeUnit.SECONDS.toNanos(1) / PACED_RATE);
+
+                Arrays.sort(burst);
+                Arrays.sort(paced);
+                System.out.printf("%-15s burst %7.0f records/s p50=%7.2fms p99=%7.2fms | at %d/s p50=%6.2fms p99=%6.2fms p99.9=%6.2fms%n",
+                        profile, RECORDS / seconds, millis(burst, 0.50), millis(burst, 0.99),
+                        PACED_RATE, millis(paced, 0.50), millis(paced, 0.99), millis(paced, 0.999));
+            }
+        }
+    }
+
+    private static void run(KafkaProducer<String, OrderEvent> producer, List<OrderEvent> orders, int records,
+                            long[] latencies, long nanosBetweenSends) throws InterruptedException {
+        CountDownLatch acked = new CountDownLatch(records);
+        AtomicInteger failed = new AtomicInteger();
+        long nextSendAt = System.nanoTime();
+        for (int i = 0; i < records; i++) {
+            if (nanosBetweenSends > 0) {
+                nextSendAt += nanosBetweenSends;
+                long wait = nextSendAt - System.nanoTime();
+                if (wait > 0)
+                    LockSupport.parkNanos(wait);
+            }
+            OrderEvent order = orders.get(i % orders.size());
+            int index = i;
+            long sentAt = System.nanoTime();
+            producer.send(new ProducerRecord<>(TOPIC, order.getOrderId(), order), (metadata, exception) -> {
+                latencies[index] = System.nanoTime() - sentAt;
+                if (exception != null)
+                    failed.incrementAndGet();
+                acked.countDown();
+            });
+        }
+        acked.await(5, TimeUnit.MINUTES);
+        assertEquals(0, failed.get());
+    }
+
+    private static Map<String, Object> config(ProducerProfile profile) {
+        Map<String, Object> config = new HashMap<>();
+        config.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString());
+        config.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        config.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, BinaryEventSerializer.class);
+        config.put(ProducerConfig.ACKS_CONFIG, "all");
+        config.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        config.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, 5);
+        config.putAll(profile.properties());
+        return config;
+    }
+
+    private static List<OrderEvent> orders(int count) {
+        SnowflakeOrderIdGenerator ids = new SnowflakeOrderIdGenerator(1);
+        Category[] categories = {Category.STANDARD, Category.PERISHABLE, Category.DIGITAL};
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        List<OrderEvent> orders = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            List<OrderItem> items = new ArrayList<>();
+            for (int item = random.nextInt(1, 6); item > 0; item--)
+                items.add(new OrderItem(categories[random.nextInt(categories.length)], "P" + random.nextInt(1000, 1010),
+                        random.nextInt(1, 5)));
+            orders.add(new OrderEvent(ids.nextId(), "Customer " + random.nextInt(100_000), items, InventoryStatus.PENDING));
+        }
+        return orders;
+    }
+
+    private static double millis(long[] sorted, double percentile) {
+        return sorted[(int) Math.min(sorted.length - 1, Math.round(percentile * sorted.length))] / 1e6;
+    }
+}
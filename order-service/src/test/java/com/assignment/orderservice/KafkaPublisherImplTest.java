@@ -0,0 +1,58 @@
+package com.assignment.orderservice;
+
+import com.assignment.commonmodel.model.OrderEvent;
+import com.assignment.orderservice.concurrency.ConcurrencyGuard;
+import com.assignment.orderservice.services.implementation.KafkaPublisherImpl;
+import org.apache.kafka.common.errors.TimeoutException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class KafkaPublisherImplTest {
+
+    private KafkaTemplate<String, Object> kafkaTemplate;
+    private KafkaPublisherImpl publisher;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        kafkaTemplate = mock(KafkaTemplate.class);
+        publisher = new KafkaPublisherImpl(kafkaTemplate, new ConcurrencyGuard("kafka", 16, Duration.ofSeconds(1)));
+        ReflectionTestUtils.setField(publisher, "orderTopic", "orders");
+    }
+
+    @Test
+    void publishOrdersCreated_reportsSendsThatFailLaterOrAreNeverAcknowledged() {
+        when(kafkaTemplate.send(eq("orders"), eq("o-1"), any()))
+                .thenReturn(CompletableFuture.completedFuture(mock(SendResult.class, RETURNS_DEEP_STUBS)));
+        when(kafkaTemplate.send(eq("orders"), eq("o-2"), any()))
+                .thenReturn(CompletableFuture.failedFuture(new TimeoutException("expired in accumulator")));
+        when(kafkaTemplate.send(eq("orders"), eq("o-3"), any()))
+                .thenReturn(new CompletableFuture<>());
+
+        Set<String> failed = publisher.publishOrdersCreated(
+                List.of(event("o-1"), event("o-2"), event("o-3")), Duration.ofMillis(50));
+
+        assertEquals(Set.of("o-2", "o-3"), failed);
+    }
+
+    private static OrderEvent event(String orderId) {
+        OrderEvent event = new OrderEvent();
+        event.setOrderId(orderId);
+        return event;
+    }
+}
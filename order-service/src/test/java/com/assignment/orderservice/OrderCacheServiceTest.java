@@ -5,15 +5,52 @@ import com.assignment.commonmodel.model.Category;
 import com.assignment.commonmodel.model.InventoryStatus;
 import com.assignment.commonmodel.model.OrderEvent;
 import com.assignment.commonmodel.model.OrderItem;
+import com.assignment.commonmodel.resilience.CircuitBreaker;
+import com.assignment.orderservice.cache.OrderCacheMetrics;
+import com.assignment.orderservice.cache.OrderFallbackCache;
+import com.assignment.orderservice.cache.OrderNearCache;
+import com.assignment.orderservice.cache.OrderTtlPolicy;
+import com.assignment.orderservice.cache.RedisCommandCoalescer;
+import com.assignment.orderservice.cache.RedisShardRouter;
+import com.assignment.orderservice.cache.RedisSpillLog;
+import com.assignment.orderservice.errorhandling.exceptions.OrderNotStoredException;
+import com.assignment.orderservice.errorhandling.exceptions.RedisOperationException;
+import com.assignment.orderservice.concurrency.ConcurrencyGuard;
 import com.assignment.orderservice.services.implementation.OrderCacheServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.mockito.Mockito;
 import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.redis.RedisSystemException;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisPipelineException;
+import org.springframework.data.redis.connection.RedisScriptingCommands;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.ReactiveValueOperations;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
 import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -21,18 +58,70 @@ import static org.mockito.Mockito.*;
 
 public class OrderCacheServiceTest {
 
+    private static final Duration PENDING_TTL = Duration.ofDays(7);
+    private static final OrderTtlPolicy TTL_POLICY = new OrderTtlPolicy(PENDING_TTL, Duration.ofHours(24));
+    private static final RedisShardRouter SINGLE_REDIS = new RedisShardRouter(mock(RedisConnectionFactory.class));
+
     private RedisTemplate<String, Object> redis;
     private ValueOperations<String, Object> valueOps;
+    private ReactiveRedisTemplate<String, Object> reactiveRedis;
+    private ReactiveValueOperations<String, Object> reactiveValueOps;
     private OrderCacheServiceImpl service;
     private OrderEvent orderEvent;
+    private RedisSpillLog disabledSpillLog;
+    private SimpleMeterRegistry meterRegistry;
+
+    @TempDir
+    Path spillDirectory;
 
     @BeforeEach
     void setUp() {
         redis = Mockito.mock(RedisTemplate.class);
+        meterRegistry = new SimpleMeterRegistry();
         valueOps = Mockito.mock(ValueOperations.class);
         orderEvent = orderEventBuilder();
+        reactiveRedis = Mockito.mock(ReactiveRedisTemplate.class);
+        reactiveValueOps = Mockito.mock(ReactiveValueOperations.class);
         when(redis.opsForValue()).thenReturn(valueOps);
-        service = new OrderCacheServiceImpl(redis);
+        when(reactiveRedis.opsForValue()).thenReturn(reactiveValueOps);
+        runPipelinesOnValueOps();
+        disabledSpillLog = new RedisSpillLog(new ObjectMapper(), redis, new ConcurrencyGuard("redis", 16, Duration.ofMillis(50)),
+                neverOpens(), TTL_POLICY, SINGLE_REDIS);
+        OrderFallbackCache setUpFallback = fallbackCache();
+        service = new OrderCacheServiceImpl(redis, reactiveRedis, new ConcurrencyGuard("redis", 16, Duration.ofMillis(50)), direct(),
+                disabledNearCache(), setUpFallback, disabledSpillLog, neverOpens(), TTL_POLICY, SINGLE_REDIS, metrics(setUpFallback));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void runPipelinesOnValueOps() {
+        doAnswer(invocation -> {
+            invocation.<SessionCallback<Object>>getArgument(0).execute(redis);
+            return List.of();
+        }).when(redis).executePipelined(any(SessionCallback.class));
+    }
+
+    private OrderCacheMetrics metrics() {
+        return metrics(fallbackCache());
+    }
+
+    private OrderCacheMetrics metrics(OrderFallbackCache fallbackCache) {
+        return new OrderCacheMetrics(meterRegistry, disabledNearCache(), fallbackCache, disabledSpillLog);
+    }
+
+    private RedisCommandCoalescer direct() {
+        return new RedisCommandCoalescer(redis, SINGLE_REDIS, false, Duration.ZERO, 1);
+    }
+
+    private OrderFallbackCache fallbackCache() {
+        return new OrderFallbackCache(1000, 1_000_000, Duration.ofMinutes(20), disabledSpillLog);
+    }
+
+    private static CircuitBreaker neverOpens() {
+        return new CircuitBreaker("redis", Integer.MAX_VALUE, Duration.ofSeconds(5));
+    }
+
+    private static OrderNearCache disabledNearCache() {
+        return new OrderNearCache(1000, Duration.ZERO, Duration.ZERO);
     }
 
     private String buildKey(String orderId){
@@ -60,15 +149,15 @@ public class OrderCacheServiceTest {
     @Test
     void saveOrder_RedisUp_writesToRedis_noPendingFlush() {
         String key = buildKey(orderEvent.getOrderId());
-        doNothing().when(valueOps).set(key, orderEvent);
+        doNothing().when(valueOps).set(key, orderEvent, PENDING_TTL);
 
         String savedKey = service.saveOrder(orderEvent);
         assertEquals(key, savedKey);
 
-        verify(valueOps, times(1)).set(key, orderEvent);
+        verify(valueOps, times(1)).set(key, orderEvent, PENDING_TTL);
 
         service.flushPendingToRedis();
-        verify(valueOps, times(1)).set(key, orderEvent);
+        verify(valueOps, times(1)).set(key, orderEvent, PENDING_TTL);
     }
 
     @Test
@@ -76,42 +165,452 @@ public class OrderCacheServiceTest {
         String key = buildKey(orderEvent.getOrderId());
 
         doThrow(new DataAccessResourceFailureException("down"))
-                .when(valueOps).set(key, orderEvent);
+                .when(valueOps).set(key, orderEvent, PENDING_TTL);
 
         String savedKey = service.saveOrder(orderEvent);
         assertEquals(key, savedKey);
-        verify(valueOps, times(1)).set(key, orderEvent);
+        verify(valueOps, times(1)).set(key, orderEvent, PENDING_TTL);
 
-        doNothing().when(valueOps).set(key, orderEvent);
+        doNothing().when(valueOps).set(key, orderEvent, PENDING_TTL);
         service.flushPendingToRedis();
 
-        verify(valueOps, times(2)).set(key, orderEvent);
+        verify(valueOps, times(2)).set(key, orderEvent, PENDING_TTL);
     }
 
     @Test
-    void getOrder_redisDown_returnsFromFallback_andBack_Fills_WhenUp() {
+    void getOrder_redisDown_returnsFromFallback_withoutRedis_thenFlushWritesIt() {
         String orderId = orderEvent.getOrderId();
         String key = buildKey(orderEvent.getOrderId());
 
         doThrow(new org.springframework.dao.DataAccessResourceFailureException("down"))
-                .when(valueOps).set(key, orderEvent);
+                .when(valueOps).set(key, orderEvent, PENDING_TTL);
 
         service.saveOrder(orderEvent);
 
-        verify(valueOps, times(1)).set(key, orderEvent);
-
-        when(valueOps.get(key))
-                .thenThrow(new org.springframework.dao.DataAccessResourceFailureException("down"));
-
-        doNothing().when(valueOps).set(key, orderEvent);
+        verify(valueOps, times(1)).set(key, orderEvent, PENDING_TTL);
 
         OrderEvent fromCache = service.getOrder(orderId);
         assertNotNull(fromCache);
         assertEquals(orderId, fromCache.getOrderId());
+        verify(valueOps, never()).get(key);
+
+        doNothing().when(valueOps).set(key, orderEvent, PENDING_TTL);
+        service.flushPendingToRedis();
+        service.flushPendingToRedis();
 
-        verify(valueOps, times(1)).get(key);
-        verify(valueOps, times(2)).set(key, orderEvent);
+        verify(valueOps, times(2)).set(key, orderEvent, PENDING_TTL);
+        assertEquals(0, service.pendingCount());
         verifyNoMoreInteractions(valueOps);
     }
 
+    @Test
+    void saveOrders_redisUp_writesBatchInOnePipeline() {
+        OrderEvent second = orderEventBuilder();
+        when(redis.executePipelined(any(SessionCallback.class))).thenReturn(List.of());
+
+        List<String> keys = service.saveOrders(List.of(orderEvent, second));
+
+        assertEquals(List.of(buildKey(orderEvent.getOrderId()), buildKey(second.getOrderId())), keys);
+        verify(redis, times(1)).executePipelined(any(SessionCallback.class));
+
+        service.flushPendingToRedis();
+        verifyNoInteractions(valueOps);
+    }
+
+    @Test
+    void writeOrdersToRedis_neverOverwritesAStatusWithAPendingCopy() {
+        OrderEvent approved = orderEventBuilder();
+        approved.setStatus(InventoryStatus.APPROVED);
+        runPipelinesOnValueOps();
+
+        assertTrue(service.writeOrdersToRedis(List.of(orderEvent, approved)));
+
+        verify(valueOps).setIfAbsent(eq(buildKey(orderEvent.getOrderId())), eq(orderEvent), any(Duration.class));
+        verify(valueOps).set(eq(buildKey(approved.getOrderId())), eq(approved), any(Duration.class));
+        verify(valueOps, never()).set(eq(buildKey(orderEvent.getOrderId())), any(), any(Duration.class));
+    }
+
+    @Test
+    void saveOrders_redisDown_fallbackForWholeBatch_thenFlush_writesEachToRedis() {
+        OrderEvent second = orderEventBuilder();
+        when(redis.executePipelined(any(SessionCallback.class)))
+                .thenThrow(new DataAccessResourceFailureException("down"));
+
+        service.saveOrders(List.of(orderEvent, second));
+
+        runPipelinesOnValueOps();
+        service.flushPendingToRedis();
+        verify(valueOps, times(1)).set(buildKey(orderEvent.getOrderId()), orderEvent, PENDING_TTL);
+        verify(valueOps, times(1)).set(buildKey(second.getOrderId()), second, PENDING_TTL);
+    }
+
+    @Test
+    void saveOrder_redisGuardExhausted_fallsBackWithoutCallingRedis() {
+        ConcurrencyGuard exhausted = new ConcurrencyGuard("redis", 0, Duration.ofMillis(10));
+        service = new OrderCacheServiceImpl(redis, reactiveRedis, exhausted, direct(), disabledNearCache(), fallbackCache(), disabledSpillLog, neverOpens(), TTL_POLICY, SINGLE_REDIS, metrics());
+
+        String savedKey = service.saveOrder(orderEvent);
+        assertEquals(buildKey(orderEvent.getOrderId()), savedKey);
+        verifyNoInteractions(valueOps);
+    }
+
+    @Test
+    void saveOrderReactive_redisDown_fallback_thenFlush_writesToRedis() {
+        String key = buildKey(orderEvent.getOrderId());
+        when(reactiveValueOps.setIfAbsent(key, orderEvent, PENDING_TTL))
+                .thenReturn(Mono.error(new DataAccessResourceFailureException("down")));
+
+        String savedKey = service.saveOrderReactive(orderEvent).block();
+        assertEquals(key, savedKey);
+
+        service.flushPendingToRedis();
+        verify(valueOps, times(1)).set(key, orderEvent, PENDING_TTL);
+    }
+
+    @Test
+    void getOrder_nearCacheHit_servesWithoutRedis_andStatusUpdateIsVisible() {
+        OrderNearCache nearCache = new OrderNearCache(1000, Duration.ofMinutes(1), Duration.ofMinutes(5));
+        service = new OrderCacheServiceImpl(redis, reactiveRedis, new ConcurrencyGuard("redis", 16, Duration.ofMillis(50)), direct(), nearCache,
+                fallbackCache(), disabledSpillLog, neverOpens(), TTL_POLICY, SINGLE_REDIS, metrics());
+        String orderId = orderEvent.getOrderId();
+        when(valueOps.get(buildKey(orderId))).thenReturn(orderEvent);
+
+        assertEquals(InventoryStatus.PENDING.name(), service.getStatus(orderId));
+        assertEquals(InventoryStatus.PENDING.name(), service.getStatus(orderId));
+        verify(valueOps, times(1)).get(buildKey(orderId));
+
+        nearCache.updateStatus(orderId, InventoryStatus.APPROVED);
+        assertEquals(InventoryStatus.APPROVED.name(), service.getStatus(orderId));
+        verify(valueOps, times(1)).get(buildKey(orderId));
+    }
+
+    @Test
+    void fallback_overWeightLimit_dropsOrders_andCountsThem() {
+        OrderFallbackCache fallbackCache = new OrderFallbackCache(10, 10_000, Duration.ofMinutes(20), disabledSpillLog);
+        service = new OrderCacheServiceImpl(redis, reactiveRedis, new ConcurrencyGuard("redis", 16, Duration.ofMillis(50)), direct(),
+                disabledNearCache(), fallbackCache, disabledSpillLog, neverOpens(), TTL_POLICY, SINGLE_REDIS, metrics());
+        doThrow(new DataAccessResourceFailureException("down")).when(valueOps).set(anyString(), any(), any(Duration.class));
+
+        for (int i = 0; i < 50; i++)
+            service.saveOrder(orderEventBuilder());
+        fallbackCache.cleanUp();
+
+        assertTrue(service.pendingCount() <= 10);
+        assertTrue(fallbackCache.weightedSize() <= 10_000);
+        assertEquals(50 - service.pendingCount(), fallbackCache.evictedCount());
+    }
+
+    @Test
+    void fallback_expiredOrders_areSpilledToDisk() throws InterruptedException {
+        RedisSpillLog spillLog = mock(RedisSpillLog.class);
+        when(spillLog.spill(anyString(), any(OrderEvent.class))).thenReturn(true);
+        OrderFallbackCache fallbackCache = new OrderFallbackCache(1000, 1_000_000, Duration.ofMillis(20), spillLog);
+        fallbackCache.put(buildKey(orderEvent.getOrderId()), orderEvent);
+
+        Thread.sleep(50);
+        fallbackCache.cleanUp();
+
+        assertTrue(fallbackCache.isEmpty());
+        verify(spillLog).spill(buildKey(orderEvent.getOrderId()), orderEvent);
+    }
+
+    @Test
+    void flushPendingToRedis_sendsChunkedPipelines_untilBacklogIsEmpty() {
+        doThrow(new DataAccessResourceFailureException("down")).when(valueOps).set(anyString(), any(), any(Duration.class));
+        for (int i = 0; i < 25; i++)
+            service.saveOrder(orderEventBuilder());
+        assertEquals(25, service.pendingCount());
+
+        doNothing().when(valueOps).set(anyString(), any(), any(Duration.class));
+        ReflectionTestUtils.setField(service, "flushChunkSize", 10);
+        ReflectionTestUtils.setField(service, "flushParallelism", 2);
+        service.flushPendingToRedis();
+
+        verify(redis, times(3)).executePipelined(any(SessionCallback.class));
+        assertEquals(0, service.pendingCount());
+    }
+
+    @Test
+    void flushPendingToRedis_redisFailsAgain_keepsRemainingBacklog() {
+        doThrow(new DataAccessResourceFailureException("down")).when(valueOps).set(anyString(), any(), any(Duration.class));
+        for (int i = 0; i < 25; i++)
+            service.saveOrder(orderEventBuilder());
+
+        ReflectionTestUtils.setField(service, "flushChunkSize", 10);
+        ReflectionTestUtils.setField(service, "flushParallelism", 1);
+        service.flushPendingToRedis();
+
+        verify(redis, times(1)).executePipelined(any(SessionCallback.class));
+        assertEquals(25, service.pendingCount());
+    }
+
+    @Test
+    void fallback_overWeightLimit_spillsToDisk_andReplaysToRedis_alsoAfterRestart() {
+        RedisSpillLog spillLog = openSpillLog();
+        OrderFallbackCache fallbackCache = new OrderFallbackCache(10, 10_000, Duration.ofMinutes(20), spillLog);
+        service = new OrderCacheServiceImpl(redis, reactiveRedis, new ConcurrencyGuard("redis", 16, Duration.ofMillis(50)), direct(),
+                disabledNearCache(), fallbackCache, spillLog, neverOpens(), TTL_POLICY, SINGLE_REDIS, metrics());
+        doThrow(new DataAccessResourceFailureException("down")).when(valueOps).set(anyString(), any(), any(Duration.class));
+
+        List<OrderEvent> orders = new java.util.ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            orders.add(orderEventBuilder());
+            service.saveOrder(orders.get(i));
+        }
+        fallbackCache.cleanUp();
+
+        assertEquals(50, service.pendingCount());
+        assertEquals(0, fallbackCache.evictedCount());
+        assertTrue(spillLog.size() >= 40);
+        for (OrderEvent order : orders)
+            assertEquals(order.getOrderId(), service.getOrder(order.getOrderId()).getOrderId());
+
+        RedisSpillLog afterRestart = openSpillLog();
+        assertEquals(spillLog.size(), afterRestart.size());
+
+        doNothing().when(valueOps).set(anyString(), any(), any(Duration.class));
+        assertTrue(afterRestart.replay());
+        assertEquals(0, afterRestart.size());
+        orders.stream()
+                .filter(order -> fallbackCache.get(buildKey(order.getOrderId())) == null)
+                .forEach(order -> verify(valueOps).setIfAbsent(buildKey(order.getOrderId()), order, PENDING_TTL));
+
+        assertEquals(0, openSpillLog().size());
+    }
+
+    private RedisSpillLog openSpillLog() {
+        RedisSpillLog spillLog = new RedisSpillLog(new ObjectMapper(), redis, new ConcurrencyGuard("redis", 16, Duration.ofMillis(50)),
+                neverOpens(), TTL_POLICY, SINGLE_REDIS);
+        ReflectionTestUtils.setField(spillLog, "enabled", true);
+        ReflectionTestUtils.setField(spillLog, "directory", spillDirectory.toString());
+        ReflectionTestUtils.setField(spillLog, "segmentSize", 4096);
+        ReflectionTestUtils.setField(spillLog, "replayBatchSize", 16);
+        ReflectionTestUtils.invokeMethod(spillLog, "open");
+        return spillLog;
+    }
+
+    @Test
+    void redisCircuitOpen_failsFast_thenProbeClosesIt() throws InterruptedException {
+        CircuitBreaker breaker = new CircuitBreaker("redis", 2, Duration.ofMillis(50));
+        service = new OrderCacheServiceImpl(redis, reactiveRedis, new ConcurrencyGuard("redis", 16, Duration.ofMillis(50)), direct(),
+                disabledNearCache(), fallbackCache(), disabledSpillLog, breaker, TTL_POLICY, SINGLE_REDIS, metrics());
+        doThrow(new DataAccessResourceFailureException("down")).when(valueOps).set(anyString(), any(), any(Duration.class));
+
+        for (int i = 0; i < 5; i++)
+            service.saveOrder(orderEventBuilder());
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+        verify(valueOps, times(2)).set(anyString(), any(), any(Duration.class));
+        assertEquals(5, service.pendingCount());
+
+        java.util.concurrent.atomic.AtomicInteger closed = new java.util.concurrent.atomic.AtomicInteger();
+        breaker.onClose(closed::incrementAndGet);
+        doNothing().when(valueOps).set(anyString(), any(), any(Duration.class));
+        Thread.sleep(60);
+        service.saveOrder(orderEventBuilder());
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+        assertEquals(1, closed.get());
+    }
+
+    @Test
+    void redisCircuitProbe_endingWithoutARedisVerdict_isReleased_andTheNextCallClosesIt() throws InterruptedException {
+        CircuitBreaker breaker = new CircuitBreaker("redis", 2, Duration.ofMillis(50));
+        service = new OrderCacheServiceImpl(redis, reactiveRedis, new ConcurrencyGuard("redis", 16, Duration.ofMillis(50)), direct(),
+                disabledNearCache(), fallbackCache(), disabledSpillLog, breaker, TTL_POLICY, SINGLE_REDIS, metrics());
+        doThrow(new DataAccessResourceFailureException("down")).when(valueOps).set(anyString(), any(), any(Duration.class));
+        service.saveOrder(orderEventBuilder());
+        service.saveOrder(orderEventBuilder());
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+        Thread.sleep(60);
+
+        // the probe fails on our side, not Redis's
+        when(valueOps.get(anyString())).thenThrow(new SerializationException("unreadable"));
+        assertNull(service.getOrder("o-1"));
+        CircuitBreaker.Permit next = breaker.tryAcquire();
+        assertNotNull(next, "a released probe lets the next caller probe right away");
+        next.release();
+
+        // the probe is cancelled, as by the create timeout
+        when(reactiveValueOps.set(anyString(), any(), any(Duration.class))).thenReturn(Mono.never());
+        when(reactiveValueOps.setIfAbsent(anyString(), any(), any(Duration.class))).thenReturn(Mono.never());
+        service.saveOrderReactive(orderEventBuilder()).subscribe().dispose();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+
+        doNothing().when(valueOps).set(anyString(), any(), any(Duration.class));
+        service.saveOrder(orderEventBuilder());
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+    }
+
+    @Test
+    void setOrderStatus_orderInRedis_updatesStatusWithScript_withoutReadingOrder() {
+        String key = buildKey(orderEvent.getOrderId());
+        when(redis.execute(any(RedisScript.class), any(RedisSerializer.class), any(RedisSerializer.class),
+                eq(List.of(key)), eq("APPROVED"), eq("\u0001"), eq("86400"))).thenReturn(1L);
+
+        service.setOrderStatus(orderEvent.getOrderId(), InventoryStatus.APPROVED);
+
+        verify(redis, times(1)).execute(any(RedisScript.class), any(RedisSerializer.class), any(RedisSerializer.class),
+                eq(List.of(key)), eq("APPROVED"), eq("\u0001"), eq("86400"));
+        verifyNoInteractions(valueOps);
+    }
+
+    @Test
+    void getStatuses_readsRedisOrdersWithOneMget_andLocalOrdersInPlace() {
+        String localId = orderEvent.getOrderId();
+        doThrow(new DataAccessResourceFailureException("down")).when(valueOps).set(eq(buildKey(localId)), any(), any(Duration.class));
+        service.saveOrder(orderEvent);
+        OrderEvent approved = orderEventBuilder();
+        approved.setStatus(InventoryStatus.APPROVED);
+        when(valueOps.multiGet(List.of(buildKey(approved.getOrderId()), buildKey("missing"))))
+                .thenReturn(Arrays.asList(approved, null));
+
+        Map<String, InventoryStatus> statuses = service.getStatuses(List.of(localId, approved.getOrderId(), "missing"));
+
+        assertEquals(Map.of(localId, InventoryStatus.PENDING, approved.getOrderId(), InventoryStatus.APPROVED), statuses);
+        verify(valueOps, times(1)).multiGet(anyCollection());
+        verify(valueOps, never()).get(any());
+        assertEquals(1, meterRegistry.get("orders.redis.latency").tags("operation", "get", "outcome", "success").timer().count());
+    }
+
+    @Test
+    void getStatuses_redisDown_leavesRedisOrdersOut_andMetersAFailedRead() {
+        when(valueOps.multiGet(anyCollection())).thenThrow(new DataAccessResourceFailureException("down"));
+
+        Map<String, InventoryStatus> statuses = service.getStatuses(List.of(orderEvent.getOrderId()));
+
+        assertTrue(statuses.isEmpty());
+        assertEquals(1, meterRegistry.get("orders.redis.latency").tags("operation", "get", "outcome", "failure").timer().count());
+    }
+
+    @Test
+    void setOrderStatus_beforeTheOrderIsStored_isRetried_andTheLatePendingWriteDoesNotOverwriteIt() {
+        String key = buildKey(orderEvent.getOrderId());
+        when(redis.execute(any(RedisScript.class), any(RedisSerializer.class), any(RedisSerializer.class),
+                eq(List.of(key)), eq("APPROVED"), any(), any())).thenReturn(0L, 1L);
+
+        assertThrows(OrderNotStoredException.class,
+                () -> service.setOrderStatus(orderEvent.getOrderId(), InventoryStatus.APPROVED));
+
+        // the order's write lands after the status (the redelivered result then applies it)
+        when(reactiveValueOps.setIfAbsent(key, orderEvent, PENDING_TTL)).thenReturn(Mono.just(true));
+        assertEquals(key, service.saveOrderReactive(orderEvent).block());
+        service.setOrderStatus(orderEvent.getOrderId(), InventoryStatus.APPROVED);
+
+        verify(reactiveValueOps, never()).set(any(), any(), any(Duration.class));
+        assertEquals(0, service.pendingCount());
+    }
+
+    @Test
+    void saveOrderReactive_statusAlreadyStored_keepsIt() {
+        String key = buildKey(orderEvent.getOrderId());
+        when(reactiveValueOps.setIfAbsent(key, orderEvent, PENDING_TTL)).thenReturn(Mono.just(false));
+
+        assertEquals(key, service.saveOrderReactive(orderEvent).block());
+
+        verify(reactiveValueOps, never()).set(any(), any(), any(Duration.class));
+        assertEquals(0, service.pendingCount());
+    }
+
+    @Test
+    void setOrderStatus_redisUnavailable_throwsSoTheResultIsRedelivered() {
+        when(redis.execute(any(RedisScript.class), any(RedisSerializer.class), any(RedisSerializer.class),
+                anyList(), any(), any(), any())).thenThrow(new DataAccessResourceFailureException("down"));
+
+        assertThrows(RedisOperationException.class,
+                () -> service.setOrderStatus(orderEvent.getOrderId(), InventoryStatus.APPROVED));
+    }
+
+    @Test
+    void setOrderStatus_orderOnlyInFallback_updatesLocalCopy_andRetriesWholeOrder() {
+        String key = buildKey(orderEvent.getOrderId());
+        doThrow(new DataAccessResourceFailureException("down")).when(valueOps).set(eq(key), any(), any(Duration.class));
+        service.saveOrder(orderEvent);
+
+        service.setOrderStatus(orderEvent.getOrderId(), InventoryStatus.REJECTED);
+
+        assertEquals(InventoryStatus.REJECTED, service.getOrder(orderEvent.getOrderId()).getStatus());
+        verify(redis, never()).execute(any(RedisScript.class), any(RedisSerializer.class), any(RedisSerializer.class),
+                anyList(), any(), any(), any());
+    }
+
+    @Test
+    void setOrderStatuses_updatesRedisOrdersInOnePipeline_andLocalOrdersInPlace() {
+        String pendingId = orderEvent.getOrderId();
+        doThrow(new DataAccessResourceFailureException("down")).when(valueOps).set(eq(buildKey(pendingId)), any(), any(Duration.class));
+        service.saveOrder(orderEvent);
+        RedisScriptingCommands scripting = runStatusPipelinesOn(mock(RedisScriptingCommands.class), 1L, 0L);
+
+        Map<String, InventoryStatus> updates = new LinkedHashMap<>();
+        updates.put("in-redis", InventoryStatus.APPROVED);
+        updates.put(pendingId, InventoryStatus.REJECTED);
+        updates.put("unknown", InventoryStatus.REJECTED);
+
+        OrderNotStoredException notStored = assertThrows(OrderNotStoredException.class, () -> service.setOrderStatuses(updates));
+
+        assertEquals(Set.of("unknown"), notStored.getOrderIds());
+        assertEquals(InventoryStatus.REJECTED, service.getOrder(pendingId).getStatus());
+        verify(redis, times(1)).executePipelined(any(RedisCallback.class), any(RedisSerializer.class));
+        verify(scripting, times(1)).evalSha(any(byte[].class), eq(ReturnType.INTEGER), eq(1),
+                eq(bytes(buildKey("in-redis"))), eq(bytes("APPROVED")), eq(bytes("\u0001")), eq(bytes("86400")));
+        verify(scripting, times(1)).evalSha(any(byte[].class), eq(ReturnType.INTEGER), eq(1),
+                eq(bytes(buildKey("unknown"))), eq(bytes("REJECTED")), eq(bytes("\u0002")), eq(bytes("86400")));
+        verify(redis, never()).execute(any(RedisScript.class), any(RedisSerializer.class), any(RedisSerializer.class),
+                anyList(), any(), any(), any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void setOrderStatuses_scriptNotCachedOnRedis_loadsItAndRetries_andReportsWhenRedisIsDown() {
+        RedisScriptingCommands scripting = runStatusPipelinesOn(mock(RedisScriptingCommands.class), 1L);
+        when(redis.executePipelined(any(RedisCallback.class), any(RedisSerializer.class)))
+                .thenThrow(new RedisPipelineException(new RedisSystemException("NOSCRIPT No matching script",
+                        new IllegalStateException("NOSCRIPT No matching script. Please use EVAL."))))
+                .thenReturn(List.of(1L));
+        when(redis.execute(any(RedisCallback.class))).thenAnswer(invocation ->
+                invocation.<RedisCallback<Object>>getArgument(0).doInRedis(connectionWith(scripting)));
+
+        assertTrue(service.setOrderStatuses(Map.of("in-redis", InventoryStatus.APPROVED)));
+        verify(scripting, times(1)).scriptLoad(any(byte[].class));
+
+        when(redis.executePipelined(any(RedisCallback.class), any(RedisSerializer.class)))
+                .thenThrow(new DataAccessResourceFailureException("down"));
+
+        assertFalse(service.setOrderStatuses(Map.of("in-redis", InventoryStatus.APPROVED)));
+    }
+
+    @SuppressWarnings("unchecked")
+    private RedisScriptingCommands runStatusPipelinesOn(RedisScriptingCommands scripting, Long... results) {
+        doAnswer(invocation -> {
+            invocation.<RedisCallback<Object>>getArgument(0).doInRedis(connectionWith(scripting));
+            return List.of((Object[]) results);
+        }).when(redis).executePipelined(any(RedisCallback.class), any(RedisSerializer.class));
+        return scripting;
+    }
+
+    private static RedisConnection connectionWith(RedisScriptingCommands scripting) {
+        RedisConnection connection = mock(RedisConnection.class);
+        when(connection.scriptingCommands()).thenReturn(scripting);
+        return connection;
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void getOrder_countsWhereTheOrderWasFound_andTimesRedisCalls() {
+        String key = buildKey(orderEvent.getOrderId());
+        doThrow(new DataAccessResourceFailureException("down")).when(valueOps).set(eq(key), any(), any(Duration.class));
+        service.saveOrder(orderEvent);
+        service.getOrder(orderEvent.getOrderId());
+        service.getOrder("unknown");
+
+        assertEquals(1.0, meterRegistry.get("orders.cache.reads").tag("source", "fallback").counter().count());
+        assertEquals(1.0, meterRegistry.get("orders.cache.reads").tag("source", "miss").counter().count());
+        assertEquals(1, meterRegistry.get("orders.redis.latency").tags("operation", "set", "outcome", "failure").timer().count());
+        assertEquals(1, meterRegistry.get("orders.redis.latency").tags("operation", "get", "outcome", "success").timer().count());
+        assertEquals(1.0, meterRegistry.get("orders.redis.fallback.size").gauge().value());
+    }
+
 }
@@ -3,11 +3,18 @@ package com.assignment.orderservice;
 import com.assignment.commonmodel.constants.Constants;
 import com.assignment.commonmodel.constants.Messages;
 import com.assignment.commonmodel.model.Category;
+import com.assignment.commonmodel.model.InventoryStatus;
+import com.assignment.orderservice.concurrency.AdaptiveConcurrencyLimiter;
 import com.assignment.orderservice.controller.OrderController;
 import com.assignment.orderservice.errorhandling.exceptions.GlobalExceptionHandler;
+import com.assignment.orderservice.errorhandling.exceptions.ConcurrencyLimitException;
+import com.assignment.orderservice.errorhandling.exceptions.KafkaPublishException;
+import com.assignment.orderservice.errorhandling.exceptions.OrderInProgressException;
 import com.assignment.orderservice.model.OrderRequest;
 import com.assignment.orderservice.model.OrderResponse;
 import com.assignment.orderservice.services.implementation.OrderServiceImpl;
+import com.assignment.orderservice.services.implementation.OrderStatusStreamServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -16,13 +23,23 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import reactor.core.publisher.Mono;
 
+import java.time.Duration;
 import java.time.Instant;
+import java.util.List;
 
 import static org.hamcrest.Matchers.containsString;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -37,12 +54,26 @@ class OrderControllerTest {
     @MockBean
     private OrderServiceImpl orderServiceImpl;
 
+    @MockBean
+    private OrderStatusStreamServiceImpl orderStatusStreamService;
+
+    @MockBean
+    private AdaptiveConcurrencyLimiter orderAdmissionLimiter;
+
+    private final AdaptiveConcurrencyLimiter admittingLimiter =
+            new AdaptiveConcurrencyLimiter(100, 10, 100, () -> 0, 1, Duration.ofSeconds(10));
+
+    @BeforeEach
+    void admitEverything() {
+        when(orderAdmissionLimiter.tryAcquire()).thenAnswer(invocation -> admittingLimiter.tryAcquire());
+    }
+
     @Test
-    void createOrder_validRequest_returns200() throws Exception {
+    void createOrder_validRequest_returns202() throws Exception {
         OrderResponse orderResponse = new OrderResponse();
         orderResponse.setOrderId("cb1667d2-b7fd-4316-a153-7c88b3ef1131");
         orderResponse.setMessage("CREATED_ORDER");
-        when(orderServiceImpl.createOrder(any(OrderRequest.class))).thenReturn(orderResponse);
+        when(orderServiceImpl.createOrder(any(OrderRequest.class), any())).thenReturn(Mono.just(orderResponse));
 
         String json = """
                   {
@@ -55,10 +86,15 @@ class OrderControllerTest {
                   }
                 """.formatted(Instant.now().plusSeconds(300).truncatedTo(java.time.temporal.ChronoUnit.SECONDS).toString());
 
-        mockMvc.perform(post("/orders")
+        MvcResult pending = mockMvc.perform(post("/orders")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(json))
-                .andExpect(status().isCreated())
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(pending))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/orders/" + orderResponse.getOrderId()))
                 .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.orderId").value(orderResponse.getOrderId()))
                 .andExpect(jsonPath("$.message").value("CREATED_ORDER"));
@@ -119,11 +155,11 @@ class OrderControllerTest {
     }
 
     @Test
-    void createOrder_invalidCategory_returns200_with_UNKNOWN_Category() throws Exception {
+    void createOrder_invalidCategory_returns202_with_UNKNOWN_Category() throws Exception {
         OrderResponse orderResponse = new OrderResponse();
         orderResponse.setOrderId("cb1667d2-b7fd-4316-a153-7c88b3ef1131");
         orderResponse.setMessage(Messages.CREATED_ORDERS);
-        when(orderServiceImpl.createOrder(any(OrderRequest.class))).thenReturn(orderResponse);
+        when(orderServiceImpl.createOrder(any(OrderRequest.class), any())).thenReturn(Mono.just(orderResponse));
 
         String json = """
       {
@@ -135,20 +171,235 @@ class OrderControllerTest {
       }
       """.formatted(Instant.now().plusSeconds(300).truncatedTo(java.time.temporal.ChronoUnit.SECONDS).toString());
 
-        mockMvc.perform(post("/orders")
+        MvcResult pending = mockMvc.perform(post("/orders")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(json))
-                .andExpect(status().isCreated())
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(pending))
+                .andExpect(status().isAccepted())
                 .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.orderId").value(orderResponse.getOrderId()))
                 .andExpect(jsonPath("$.message").value(Messages.CREATED_ORDERS));
 
         var captor = ArgumentCaptor.forClass(OrderRequest.class);
-        verify(orderServiceImpl, times(1)).createOrder(captor.capture());
+        verify(orderServiceImpl, times(1)).createOrder(captor.capture(), isNull());
 
         OrderRequest sent = captor.getValue();
         assertThat(sent.getItems()).hasSize(1);
         assertThat(sent.getItems().get(0).getCategory()).isEqualTo(Category.UNKNOWN);
     }
 
+    @Test
+    void createOrder_kafkaPublishFails_returns503() throws Exception {
+        when(orderServiceImpl.createOrder(any(OrderRequest.class), any()))
+                .thenReturn(Mono.error(new KafkaPublishException("Kafka publish failed, Error occurred in Kafka process")));
+
+        String json = """
+                  {
+                    "customerName": "Daniel",
+                    "items": [
+                      { "productId": "P1001", "quantity": 2, "category": "standard" }
+                    ],
+                    "requestedAt": "%s"
+                  }
+                """.formatted(Instant.now().plusSeconds(300).truncatedTo(java.time.temporal.ChronoUnit.SECONDS).toString());
+
+        MvcResult pending = mockMvc.perform(post("/orders")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(pending))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(jsonPath("$.status").value("REJECTED"))
+                .andExpect(jsonPath("$.message").value(containsString("Kafka publish failed")));
+    }
+
+    @Test
+    void createOrders_validBatch_returnsResultPerOrder() throws Exception {
+        OrderResponse first = new OrderResponse();
+        first.setOrderId("cb1667d2-b7fd-4316-a153-7c88b3ef1131");
+        first.setMessage(Messages.CREATED_ORDERS);
+        OrderResponse second = new OrderResponse();
+        second.setOrderId("0f3c2a51-6d1e-4f0b-9a55-2d8f1f0c9e77");
+        second.setMessage(Messages.FAILED_ORDER);
+        when(orderServiceImpl.createOrders(anyList())).thenReturn(List.of(first, second));
+
+        String requestedAt = Instant.now().plusSeconds(300).truncatedTo(java.time.temporal.ChronoUnit.SECONDS).toString();
+        String json = """
+                  {
+                    "orders": [
+                      {
+                        "customerName": "Daniel",
+                        "items": [ { "productId": "P1001", "quantity": 2, "category": "standard" } ],
+                        "requestedAt": "%s"
+                      },
+                      {
+                        "customerName": "Alice",
+                        "items": [ { "productId": "P1002", "quantity": 1, "category": "perishable" } ],
+                        "requestedAt": "%s"
+                      }
+                    ]
+                  }
+                """.formatted(requestedAt, requestedAt);
+
+        mockMvc.perform(post("/orders/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].orderId").value(first.getOrderId()))
+                .andExpect(jsonPath("$[1].message").value(Messages.FAILED_ORDER));
+
+        verify(orderServiceImpl, times(1)).createOrders(argThat(orders -> orders.size() == 2));
+    }
+
+    @Test
+    void createOrders_emptyBatch_returns400() throws Exception {
+        mockMvc.perform(post("/orders/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{ \"orders\": [] }"))
+                .andExpect(status().isBadRequest());
+
+        verify(orderServiceImpl, never()).createOrders(anyList());
+    }
+
+    @Test
+    void getOrder_found_returns200_withStatus() throws Exception {
+        OrderResponse orderResponse = new OrderResponse();
+        orderResponse.setOrderId("cb1667d2-b7fd-4316-a153-7c88b3ef1131");
+        orderResponse.setStatus(InventoryStatus.APPROVED);
+        orderResponse.setMessage(Messages.FOUND_ORDER);
+        when(orderServiceImpl.getOrder(orderResponse.getOrderId())).thenReturn(orderResponse);
+
+        mockMvc.perform(get("/orders/{orderId}", orderResponse.getOrderId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.orderId").value(orderResponse.getOrderId()))
+                .andExpect(jsonPath("$.status").value("APPROVED"));
+    }
+
+    @Test
+    void getOrder_unknown_returns404() throws Exception {
+        when(orderServiceImpl.getOrder("missing")).thenReturn(null);
+
+        mockMvc.perform(get("/orders/{orderId}", "missing"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void streamStatus_unknownOrder_returns404() throws Exception {
+        when(orderStatusStreamService.subscribe("missing")).thenReturn(null);
+
+        mockMvc.perform(get("/orders/{orderId}/status/stream", "missing"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void createOrder_withIdempotencyKey_passesKeyToService() throws Exception {
+        OrderResponse orderResponse = new OrderResponse();
+        orderResponse.setOrderId("cb1667d2-b7fd-4316-a153-7c88b3ef1131");
+        orderResponse.setMessage(Messages.CREATED_ORDERS);
+        when(orderServiceImpl.createOrder(any(OrderRequest.class), eq("retry-42"))).thenReturn(Mono.just(orderResponse));
+
+        String json = """
+                  {
+                    "customerName": "Daniel",
+                    "items": [ { "productId": "P1001", "quantity": 2, "category": "standard" } ],
+                    "requestedAt": "%s"
+                  }
+                """.formatted(Instant.now().plusSeconds(300).truncatedTo(java.time.temporal.ChronoUnit.SECONDS));
+
+        MvcResult pending = mockMvc.perform(post("/orders")
+                        .header("Idempotency-Key", "retry-42")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(pending))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.orderId").value(orderResponse.getOrderId()));
+    }
+
+    @Test
+    void createOrder_overAdmissionLimit_returns429_withRetryAfter() throws Exception {
+        when(orderAdmissionLimiter.tryAcquire()).thenReturn(null);
+
+        String json = """
+                  {
+                    "customerName": "Daniel",
+                    "items": [ { "productId": "P1001", "quantity": 2, "category": "standard" } ],
+                    "requestedAt": "%s"
+                  }
+                """.formatted(Instant.now().plusSeconds(300).truncatedTo(java.time.temporal.ChronoUnit.SECONDS));
+
+        MvcResult pending = mockMvc.perform(post("/orders")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(pending))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "1"))
+                .andExpect(jsonPath("$.status").value("REJECTED"));
+
+        verify(orderServiceImpl, never()).createOrder(any(OrderRequest.class), any());
+    }
+
+    @Test
+    void createOrder_backendConcurrencyLimitReached_returns429_withRetryAfter() throws Exception {
+        when(orderServiceImpl.createOrder(any(OrderRequest.class), any()))
+                .thenReturn(Mono.error(new ConcurrencyLimitException("Concurrency limit reached for kafka")));
+
+        String json = """
+                  {
+                    "customerName": "Daniel",
+                    "items": [ { "productId": "P1001", "quantity": 2, "category": "standard" } ],
+                    "requestedAt": "%s"
+                  }
+                """.formatted(Instant.now().plusSeconds(300).truncatedTo(java.time.temporal.ChronoUnit.SECONDS));
+
+        MvcResult pending = mockMvc.perform(post("/orders")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(pending))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "1"))
+                .andExpect(jsonPath("$.status").value("REJECTED"));
+    }
+
+    @Test
+    void createOrder_duplicateWhileOriginalInProgress_returns409_withRetryAfter() throws Exception {
+        when(orderServiceImpl.createOrder(any(OrderRequest.class), eq("retry-42")))
+                .thenReturn(Mono.error(new OrderInProgressException("Order original-id is still being created", "original-id")));
+
+        String json = """
+                  {
+                    "customerName": "Daniel",
+                    "items": [ { "productId": "P1001", "quantity": 2, "category": "standard" } ],
+                    "requestedAt": "%s"
+                  }
+                """.formatted(Instant.now().plusSeconds(300).truncatedTo(java.time.temporal.ChronoUnit.SECONDS));
+
+        MvcResult pending = mockMvc.perform(post("/orders")
+                        .header("Idempotency-Key", "retry-42")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(pending))
+                .andExpect(status().isConflict())
+                .andExpect(header().string("Retry-After", "1"))
+                .andExpect(jsonPath("$.orderId").value("original-id"))
+                .andExpect(jsonPath("$.status").value("PENDING"));
+    }
+
 }
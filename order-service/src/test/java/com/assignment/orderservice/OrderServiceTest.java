@@ -0,0 +1,219 @@
+package com.assignment.orderservice;
+
+import com.assignment.commonmodel.constants.Messages;
+import com.assignment.commonmodel.model.Category;
+import com.assignment.commonmodel.model.InventoryStatus;
+import com.assignment.commonmodel.model.OrderEvent;
+import com.assignment.commonmodel.model.OrderItem;
+import com.assignment.orderservice.cache.IdempotencyStore;
+import com.assignment.orderservice.errorhandling.exceptions.ConcurrencyLimitException;
+import com.assignment.orderservice.errorhandling.exceptions.KafkaPublishException;
+import com.assignment.orderservice.errorhandling.exceptions.OrderInProgressException;
+import com.assignment.orderservice.ids.OrderIdGenerator;
+import com.assignment.orderservice.ids.UuidOrderIdGenerator;
+import com.assignment.orderservice.model.OrderRequest;
+import com.assignment.orderservice.model.OrderResponse;
+import com.assignment.orderservice.outbox.OrderOutbox;
+import com.assignment.orderservice.services.implementation.KafkaPublisherImpl;
+import com.assignment.orderservice.services.implementation.OrderCacheServiceImpl;
+import com.assignment.orderservice.services.implementation.OrderServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class OrderServiceTest {
+
+    @Mock
+    private KafkaPublisherImpl kafkaPublisherService;
+
+    @Mock
+    private OrderCacheServiceImpl orderCacheService;
+
+    @Mock
+    private OrderOutbox orderOutbox;
+
+    @Mock
+    private IdempotencyStore idempotencyStore;
+
+    @Spy
+    private OrderIdGenerator orderIdGenerator = new UuidOrderIdGenerator();
+
+    @InjectMocks
+    private OrderServiceImpl orderService;
+
+    private OrderRequest request;
+
+    @BeforeEach
+    void setUp() {
+        request = new OrderRequest(
+                List.of(new OrderItem(Category.STANDARD, "P1001", 2)),
+                "Daniel",
+                Instant.now().plusSeconds(300));
+    }
+
+    @Test
+    void createOrder_redisAndKafkaSucceed_returnsPendingOrder() {
+        when(orderCacheService.saveOrderReactive(any(OrderEvent.class)))
+                .thenAnswer(invocation -> Mono.just("order:" + invocation.<OrderEvent>getArgument(0).getOrderId()));
+        when(kafkaPublisherService.publishOrderCreated(any(OrderEvent.class)))
+                .thenReturn(Mono.just(mock(SendResult.class)));
+
+        OrderResponse response = orderService.createOrder(request).block();
+
+        assertNotNull(response);
+        assertNotNull(response.getOrderId());
+        assertEquals(InventoryStatus.PENDING, response.getStatus());
+        assertEquals(Messages.CREATED_ORDERS, response.getMessage());
+    }
+
+    @Test
+    void createOrder_kafkaFails_propagatesKafkaPublishException() {
+        when(orderCacheService.saveOrderReactive(any(OrderEvent.class))).thenReturn(Mono.just("order:1"));
+        when(kafkaPublisherService.publishOrderCreated(any(OrderEvent.class)))
+                .thenReturn(Mono.error(new KafkaPublishException("Kafka publish failed")));
+
+        Mono<OrderResponse> result = orderService.createOrder(request);
+
+        assertThrows(KafkaPublishException.class, result::block);
+    }
+
+    @Test
+    void createOrder_kafkaConcurrencyLimitReached_propagatesUnwrapped() {
+        when(orderCacheService.saveOrderReactive(any(OrderEvent.class))).thenReturn(Mono.just("order:1"));
+        when(kafkaPublisherService.publishOrderCreated(any(OrderEvent.class)))
+                .thenReturn(Mono.error(new ConcurrencyLimitException("Concurrency limit reached for kafka")));
+
+        Mono<OrderResponse> result = orderService.createOrder(request);
+
+        assertThrows(ConcurrencyLimitException.class, result::block);
+    }
+
+    @Test
+    void createOrder_redisNeverCompletes_kafkaStillSent_andDeadlineFails() {
+        ReflectionTestUtils.setField(orderService, "createTimeout", Duration.ofMillis(100));
+        when(orderCacheService.saveOrderReactive(any(OrderEvent.class))).thenReturn(Mono.never());
+        when(kafkaPublisherService.publishOrderCreated(any(OrderEvent.class)))
+                .thenReturn(Mono.just(mock(SendResult.class)));
+
+        Exception exception = assertThrows(RuntimeException.class, () -> orderService.createOrder(request).block());
+
+        assertInstanceOf(TimeoutException.class, exception.getCause());
+        verify(kafkaPublisherService, times(1)).publishOrderCreated(any(OrderEvent.class));
+    }
+
+    @Test
+    void createOrder_outboxEnabled_acceptsAfterAppend_withoutRedisOrKafka() {
+        when(orderOutbox.isEnabled()).thenReturn(true);
+        when(orderOutbox.append(any(OrderEvent.class))).thenReturn(Mono.empty());
+
+        OrderResponse response = orderService.createOrder(request).block();
+
+        assertNotNull(response);
+        assertEquals(InventoryStatus.PENDING, response.getStatus());
+        verify(orderOutbox, times(1)).append(any(OrderEvent.class));
+        verifyNoInteractions(orderCacheService, kafkaPublisherService);
+    }
+
+    @Test
+    void createOrder_repeatedIdempotencyKey_returnsOriginalOrder_withoutPublishing() {
+        OrderEvent original = new OrderEvent("original-id", "Daniel", request.getItems(), InventoryStatus.APPROVED);
+        when(idempotencyStore.claim(eq("retry-42"), anyString())).thenReturn(Mono.just("original-id"));
+        when(orderCacheService.getOrder("original-id")).thenReturn(original);
+
+        OrderResponse response = orderService.createOrder(request, "retry-42").block();
+
+        assertNotNull(response);
+        assertEquals("original-id", response.getOrderId());
+        assertEquals(InventoryStatus.APPROVED, response.getStatus());
+        verify(orderCacheService, never()).saveOrderReactive(any(OrderEvent.class));
+        verifyNoInteractions(kafkaPublisherService);
+    }
+
+    @Test
+    void createOrder_repeatedIdempotencyKey_originalNotStoredYet_failsAsInProgress() {
+        when(idempotencyStore.claim(eq("retry-42"), anyString())).thenReturn(Mono.just("original-id"));
+        when(orderCacheService.getOrder("original-id")).thenReturn(null);
+
+        OrderInProgressException exception = assertThrows(OrderInProgressException.class,
+                () -> orderService.createOrder(request, "retry-42").block());
+
+        assertEquals("original-id", exception.getOrderId());
+        verify(orderCacheService, never()).saveOrderReactive(any(OrderEvent.class));
+        verifyNoInteractions(kafkaPublisherService);
+    }
+
+    @Test
+    void createOrder_idempotentCreateFails_releasesKey() {
+        when(idempotencyStore.claim(eq("retry-42"), anyString()))
+                .thenAnswer(invocation -> Mono.just(invocation.<String>getArgument(1)));
+        when(idempotencyStore.release(eq("retry-42"), anyString())).thenReturn(Mono.empty());
+        when(orderCacheService.saveOrderReactive(any(OrderEvent.class))).thenReturn(Mono.just("order:1"));
+        when(kafkaPublisherService.publishOrderCreated(any(OrderEvent.class)))
+                .thenReturn(Mono.error(new KafkaPublishException("Kafka publish failed")));
+
+        assertThrows(KafkaPublishException.class, () -> orderService.createOrder(request, "retry-42").block());
+
+        verify(idempotencyStore, times(1)).release(eq("retry-42"), anyString());
+    }
+
+    @Test
+    void createOrder_idempotentCreateTimesOut_keepsKey() {
+        ReflectionTestUtils.setField(orderService, "createTimeout", Duration.ofMillis(100));
+        when(idempotencyStore.claim(eq("retry-43"), anyString()))
+                .thenAnswer(invocation -> Mono.just(invocation.<String>getArgument(1)));
+        when(orderCacheService.saveOrderReactive(any(OrderEvent.class))).thenReturn(Mono.just("order:1"));
+        when(kafkaPublisherService.publishOrderCreated(any(OrderEvent.class))).thenReturn(Mono.never());
+
+        Exception exception = assertThrows(RuntimeException.class, () -> orderService.createOrder(request, "retry-43").block());
+
+        assertInstanceOf(TimeoutException.class, exception.getCause());
+        verify(idempotencyStore, never()).release(anyString(), anyString());
+    }
+
+    @Test
+    void createOrders_unpublishedOrders_areStoredAsRejected() {
+        Map<String, InventoryStatus> stored = new HashMap<>();
+        when(orderCacheService.saveOrders(anyList())).thenAnswer(invocation -> {
+            invocation.<List<OrderEvent>>getArgument(0).forEach(event -> stored.put(event.getOrderId(), event.getStatus()));
+            return List.of();
+        });
+        when(orderCacheService.setOrderStatuses(anyMap())).thenAnswer(invocation -> {
+            stored.putAll(invocation.getArgument(0));
+            return true;
+        });
+        when(kafkaPublisherService.publishOrdersCreated(anyList(), any(Duration.class)))
+                .thenAnswer(invocation -> Set.of(invocation.<List<OrderEvent>>getArgument(0).get(1).getOrderId()));
+
+        List<OrderResponse> responses = orderService.createOrders(List.of(request, request));
+
+        assertEquals(InventoryStatus.PENDING, responses.get(0).getStatus());
+        assertEquals(InventoryStatus.REJECTED, responses.get(1).getStatus());
+        assertEquals(InventoryStatus.PENDING, stored.get(responses.get(0).getOrderId()));
+        assertEquals(InventoryStatus.REJECTED, stored.get(responses.get(1).getOrderId()));
+    }
+
+}
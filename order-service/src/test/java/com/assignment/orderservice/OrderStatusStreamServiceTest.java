@@ -0,0 +1,87 @@
+package com.assignment.orderservice;
+
+import com.assignment.commonmodel.model.InventoryStatus;
+import com.assignment.orderservice.services.implementation.OrderCacheServiceImpl;
+import com.assignment.orderservice.services.implementation.OrderStatusStreamServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class OrderStatusStreamServiceTest {
+
+    private OrderCacheServiceImpl orderCacheService;
+    private OrderStatusStreamServiceImpl streamService;
+
+    @BeforeEach
+    void setUp() {
+        orderCacheService = mock(OrderCacheServiceImpl.class);
+        streamService = new OrderStatusStreamServiceImpl(orderCacheService, 2);
+    }
+
+    @Test
+    void subscribe_pendingOrder_waitsUntilFinalStatusIsPublished() {
+        when(orderCacheService.getStatus("o-1")).thenReturn("PENDING");
+
+        SseEmitter first = streamService.subscribe("o-1");
+        SseEmitter second = streamService.subscribe("o-1");
+
+        assertThat(first).isNotNull();
+        assertThat(second).isNotNull();
+        assertThat(streamService.subscriberCount("o-1")).isEqualTo(2);
+
+        streamService.publish("o-1", InventoryStatus.PENDING);
+        assertThat(streamService.subscriberCount("o-1")).isEqualTo(2);
+
+        streamService.publish("o-1", InventoryStatus.APPROVED);
+        assertThat(streamService.subscriberCount("o-1")).isZero();
+    }
+
+    @Test
+    void subscribe_finalOrder_completesWithoutWaiting() {
+        when(orderCacheService.getStatus("o-2")).thenReturn("REJECTED");
+
+        assertThat(streamService.subscribe("o-2")).isNotNull();
+        assertThat(streamService.subscriberCount("o-2")).isZero();
+    }
+
+    @Test
+    void subscribe_unknownOrder_returnsNull() {
+        when(orderCacheService.getStatus("missing")).thenReturn(null);
+
+        assertThat(streamService.subscribe("missing")).isNull();
+        assertThat(streamService.subscriberCount("missing")).isZero();
+    }
+
+    @Test
+    void recheckWaiting_picksUpStatusWrittenByAnotherInstance() {
+        when(orderCacheService.getStatus("o-3")).thenReturn("PENDING");
+        streamService.subscribe("o-3");
+
+        when(orderCacheService.getStatuses(List.of("o-3"))).thenReturn(Map.of("o-3", InventoryStatus.APPROVED));
+        streamService.recheckWaiting();
+
+        assertThat(streamService.subscriberCount("o-3")).isZero();
+    }
+
+    @Test
+    void recheckWaiting_readsAllWaitingOrdersAtOnce() {
+        when(orderCacheService.getStatus(anyString())).thenReturn("PENDING");
+        streamService.subscribe("o-4");
+        streamService.subscribe("o-5");
+        when(orderCacheService.getStatuses(anyCollection())).thenReturn(Map.of("o-4", InventoryStatus.REJECTED));
+
+        streamService.recheckWaiting();
+
+        verify(orderCacheService, times(1)).getStatuses(anyCollection());
+        assertThat(streamService.subscriberCount("o-4")).isZero();
+        assertThat(streamService.subscriberCount("o-5")).isEqualTo(1);
+    }
+}
@@ -0,0 +1,113 @@
+package com.assignment.orderservice;
+
+import com.assignment.orderservice.cache.RedisCommandCoalescer;
+import com.assignment.orderservice.cache.RedisShardRouter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class RedisCommandCoalescerTest {
+
+    private static final Duration TTL = Duration.ofMinutes(5);
+
+    private RedisTemplate<String, Object> redis;
+    private ValueOperations<String, Object> valueOps;
+    private RedisCommandCoalescer coalescer;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        redis = mock(RedisTemplate.class);
+        valueOps = mock(ValueOperations.class);
+        when(redis.opsForValue()).thenReturn(valueOps);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (coalescer != null)
+            coalescer.stop();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void concurrentCommands_inOneWindow_shareOnePipeline_andGetTheirOwnReply() {
+        coalescer = started(Duration.ofMillis(200), 16);
+        when(redis.executePipelined(any(SessionCallback.class))).thenReturn(List.of("first", true, "third"));
+
+        CompletableFuture<Object> first = coalescer.getAsync("order:1");
+        CompletableFuture<Object> write = coalescer.setAsync("order:2", "value", TTL);
+        CompletableFuture<Object> third = coalescer.getAsync("order:3");
+
+        assertEquals("first", first.join());
+        assertEquals(true, write.join());
+        assertEquals("third", third.join());
+        verify(redis, times(1)).executePipelined(any(SessionCallback.class));
+        verifyNoInteractions(valueOps);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void pipelineFails_everyCallerInTheBatchSeesTheFailure() {
+        coalescer = started(Duration.ofMillis(200), 16);
+        when(redis.executePipelined(any(SessionCallback.class)))
+                .thenThrow(new DataAccessResourceFailureException("down"));
+
+        CompletableFuture<Object> read = coalescer.getAsync("order:1");
+        CompletableFuture<Object> write = coalescer.setAsync("order:2", "value", TTL);
+
+        CompletionException failure = assertThrows(CompletionException.class, read::join);
+        assertInstanceOf(DataAccessResourceFailureException.class, failure.getCause());
+        assertThrows(CompletionException.class, write::join);
+    }
+
+    @Test
+    void setIfAbsent_neverOverwritesAnExistingKey_andRepliesWhetherItWrote() {
+        coalescer = started(Duration.ZERO, 16);
+        when(valueOps.setIfAbsent("order:1", "pending", TTL)).thenReturn(false);
+
+        assertEquals(false, coalescer.setIfAbsentAsync("order:1", "pending", TTL).join());
+        verify(valueOps, never()).set(any(), any(), any(Duration.class));
+    }
+
+    @Test
+    void singleCommand_isSentWithoutPipeline_andSyncCallRethrowsCause() {
+        coalescer = started(Duration.ZERO, 16);
+        when(valueOps.get("order:1")).thenReturn("value");
+        doThrow(new DataAccessResourceFailureException("down")).when(valueOps).set("order:2", "value", TTL);
+
+        assertEquals("value", coalescer.get("order:1"));
+        assertThrows(DataAccessResourceFailureException.class, () -> coalescer.set("order:2", "value", TTL));
+        verify(redis, never()).executePipelined(any(SessionCallback.class));
+    }
+
+    @Test
+    void disabled_runsOnCallerThread() {
+        coalescer = new RedisCommandCoalescer(redis, new RedisShardRouter(mock(RedisConnectionFactory.class)), false, Duration.ofMillis(200), 16);
+        coalescer.start();
+
+        coalescer.set("order:1", "value", TTL);
+
+        assertFalse(coalescer.isCoalescing());
+        verify(valueOps, times(1)).set("order:1", "value", TTL);
+    }
+
+    private RedisCommandCoalescer started(Duration window, int maxBatchSize) {
+        RedisCommandCoalescer started = new RedisCommandCoalescer(redis, new RedisShardRouter(mock(RedisConnectionFactory.class)), true, window, maxBatchSize);
+        started.start();
+        return started;
+    }
+}
@@ -0,0 +1,81 @@
+package com.assignment.orderservice;
+
+import com.assignment.commonmodel.codec.OrderEventRedisSerializer;
+import com.assignment.commonmodel.model.Category;
+import com.assignment.commonmodel.model.InventoryStatus;
+import com.assignment.commonmodel.model.OrderEvent;
+import com.assignment.commonmodel.model.OrderItem;
+import com.assignment.commonmodel.resilience.CircuitBreaker;
+import com.assignment.orderservice.cache.RedisKeyspaceReporter;
+import com.assignment.orderservice.concurrency.ConcurrencyGuard;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class RedisKeyspaceReporterTest {
+
+    private final OrderEventRedisSerializer serializer = new OrderEventRedisSerializer(true, 512);
+    private RedisTemplate<String, Object> redis;
+    private CircuitBreaker breaker;
+    private RedisKeyspaceReporter reporter;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        redis = mock(RedisTemplate.class);
+        when(redis.getValueSerializer()).thenReturn((RedisSerializer) serializer);
+        breaker = new CircuitBreaker("redis", 1, Duration.ofMinutes(1));
+        reporter = new RedisKeyspaceReporter(redis, new ConcurrencyGuard("redis", 4, Duration.ofMillis(50)), breaker);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void sample_scalesSampledShareByDbSize_perStatus() {
+        List<Object> keys = new ArrayList<>();
+        List<Object> values = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            InventoryStatus status = i < 4 ? InventoryStatus.PENDING : InventoryStatus.APPROVED;
+            keys.add("order:" + i);
+            values.add(serializer.serialize(new OrderEvent(String.valueOf(i), "Daniel",
+                    List.of(new OrderItem(Category.STANDARD, "P1001", 1)), status)));
+        }
+        for (int i = 0; i < 4; i++)
+            keys.add("idempotency:" + i);
+        when(redis.execute(any(RedisCallback.class))).thenReturn(1000L);
+        when(redis.executePipelined(any(RedisCallback.class), any(RedisSerializer.class))).thenReturn(keys, values);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        reporter.bindTo(registry);
+
+        reporter.sample();
+
+        long bytesPerOrder = "order:0".getBytes(StandardCharsets.UTF_8).length + ((byte[]) values.get(0)).length + 80;
+        assertEquals(400, reporter.estimatedKeys(InventoryStatus.PENDING));
+        assertEquals(200, reporter.estimatedKeys(InventoryStatus.APPROVED));
+        assertEquals(0, reporter.estimatedKeys(InventoryStatus.REJECTED));
+        assertEquals(400 * bytesPerOrder, reporter.estimatedBytes(InventoryStatus.PENDING));
+        assertEquals(200.0, registry.get("orders.redis.keys").tag("status", "APPROVED").gauge().value());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void sample_circuitOpen_doesNotTouchRedis() {
+        breaker.tryAcquire().onFailure();
+
+        reporter.sample();
+
+        verify(redis, never()).execute(any(RedisCallback.class));
+        verify(redis, never()).executePipelined(any(RedisCallback.class), any(RedisSerializer.class));
+    }
+}
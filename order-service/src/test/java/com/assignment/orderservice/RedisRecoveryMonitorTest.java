@@ -0,0 +1,68 @@
+package com.assignment.orderservice;
+
+import com.assignment.commonmodel.resilience.CircuitBreaker;
+import com.assignment.orderservice.cache.RedisRecoveryMonitor;
+import com.assignment.orderservice.services.implementation.OrderCacheServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class RedisRecoveryMonitorTest {
+
+    private final CircuitBreaker breaker = new CircuitBreaker("redis", 1, Duration.ofMillis(20));
+    private RedisConnection connection;
+    private TaskScheduler taskScheduler;
+    private RedisRecoveryMonitor monitor;
+
+    @BeforeEach
+    void setUp() {
+        RedisConnectionFactory connectionFactory = mock(RedisConnectionFactory.class);
+        connection = mock(RedisConnection.class);
+        when(connectionFactory.getConnection()).thenReturn(connection);
+        taskScheduler = mock(TaskScheduler.class);
+        monitor = new RedisRecoveryMonitor(breaker, connectionFactory, mock(OrderCacheServiceImpl.class), taskScheduler);
+        ReflectionTestUtils.invokeMethod(monitor, "flushOnClose");
+    }
+
+    @Test
+    void probe_closedCircuit_doesNotTouchRedis() {
+        monitor.probe();
+
+        verifyNoInteractions(connection);
+    }
+
+    @Test
+    void probe_redisStillDown_keepsCircuitOpen() throws InterruptedException {
+        breaker.tryAcquire().onFailure();
+        when(connection.ping()).thenThrow(new RedisConnectionFailureException("down"));
+        Thread.sleep(30);
+
+        monitor.probe();
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+        verifyNoInteractions(taskScheduler);
+    }
+
+    @Test
+    void probe_redisBack_closesCircuit_andFlushesPendingOrders() throws InterruptedException {
+        breaker.tryAcquire().onFailure();
+        when(connection.ping()).thenReturn("PONG");
+        Thread.sleep(30);
+
+        monitor.probe();
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+        verify(taskScheduler, times(1)).schedule(any(Runnable.class), any(Instant.class));
+    }
+}
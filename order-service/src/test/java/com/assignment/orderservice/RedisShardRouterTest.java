@@ -0,0 +1,81 @@
+package com.assignment.orderservice;
+
+import com.assignment.orderservice.cache.RedisShardRouter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisClusterConnection;
+import org.springframework.data.redis.connection.RedisClusterNode;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class RedisShardRouterTest {
+
+    private static final RedisClusterNode NODE_A = RedisClusterNode.newRedisClusterNode().withId("a").listeningAt("redis-a", 6379).build();
+    private static final RedisClusterNode NODE_B = RedisClusterNode.newRedisClusterNode().withId("b").listeningAt("redis-b", 6379).build();
+
+    private RedisShardRouter router;
+
+    @BeforeEach
+    void setUp() {
+        LettuceConnectionFactory connectionFactory = mock(LettuceConnectionFactory.class);
+        RedisClusterConnection connection = mock(RedisClusterConnection.class);
+        when(connectionFactory.isClusterAware()).thenReturn(true);
+        when(connectionFactory.getClusterConnection()).thenReturn(connection);
+        // keys ending in an even digit live on A, odd ones on B
+        when(connection.clusterGetNodeForKey(any(byte[].class))).thenAnswer(invocation -> {
+            String key = new String(invocation.<byte[]>getArgument(0), StandardCharsets.UTF_8);
+            return (key.charAt(key.length() - 1) - '0') % 2 == 0 ? NODE_A : NODE_B;
+        });
+        router = new RedisShardRouter(connectionFactory);
+    }
+
+    @Test
+    void split_groupsKeysByOwningMaster() {
+        List<List<String>> shards = router.split(List.of("order:1", "order:2", "order:3", "order:4"), Function.identity());
+
+        assertEquals(List.of(List.of("order:1", "order:3"), List.of("order:2", "order:4")),
+                shards.stream().sorted((a, b) -> a.get(0).compareTo(b.get(0))).toList());
+    }
+
+    @Test
+    void sendPerShard_sendsShardsInParallel_andReturnsOnlyTheFailedShard() {
+        // both shards must be in flight at the same time to get past the barrier
+        CyclicBarrier bothShardsSending = new CyclicBarrier(2);
+
+        List<String> failed = router.sendPerShard(List.of("order:1", "order:2", "order:3", "order:4"), Function.identity(),
+                shard -> {
+                    try {
+                        bothShardsSending.await(5, TimeUnit.SECONDS);
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                    if (shard.contains("order:1"))
+                        throw new IllegalStateException("shard B down");
+                    return true;
+                });
+
+        assertEquals(List.of("order:1", "order:3"), failed);
+    }
+
+    @Test
+    void singleRedis_isOneShard_onCallerThread() {
+        RedisShardRouter single = new RedisShardRouter(mock(RedisConnectionFactory.class));
+        String caller = Thread.currentThread().getName();
+
+        List<String> failed = single.sendPerShard(List.of("order:1", "order:2"), Function.identity(),
+                shard -> shard.size() == 2 && caller.equals(Thread.currentThread().getName()));
+
+        assertFalse(single.isClustered());
+        assertTrue(failed.isEmpty());
+    }
+}
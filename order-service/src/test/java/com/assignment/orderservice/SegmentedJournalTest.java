@@ -0,0 +1,120 @@
+package com.assignment.orderservice;
+
+import com.assignment.orderservice.outbox.SegmentedJournal;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SegmentedJournalTest {
+
+    @TempDir
+    Path directory;
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static List<String> payloads(List<SegmentedJournal.JournalRecord> records) {
+        return records.stream().map(r -> new String(r.payload(), StandardCharsets.UTF_8)).toList();
+    }
+
+    @Test
+    void append_onlySyncedRecordsAreReadable() throws IOException {
+        try (SegmentedJournal journal = new SegmentedJournal(directory, 1024)) {
+            long first = journal.append(bytes("order-1"));
+            assertTrue(journal.read(0, 10).isEmpty());
+
+            journal.sync(first);
+            journal.append(bytes("order-2"));
+
+            assertEquals(List.of("order-1"), payloads(journal.read(0, 10)));
+        }
+    }
+
+    @Test
+    void append_rollsOverSegments_andCommitDeletesConsumedSegments() throws IOException {
+        try (SegmentedJournal journal = new SegmentedJournal(directory, 64)) {
+            long position = 0;
+            for (int i = 0; i < 10; i++)
+                position = journal.append(bytes("order-" + i + "-payload"));
+            journal.sync(position);
+
+            List<SegmentedJournal.JournalRecord> records = journal.read(journal.checkpoint(), 100);
+            assertEquals(10, records.size());
+            assertEquals("order-9-payload", payloads(records).get(9));
+
+            journal.commit(records.get(records.size() - 1).nextPosition());
+            assertTrue(journal.read(journal.checkpoint(), 100).isEmpty());
+            assertEquals(1, segmentFiles());
+        }
+    }
+
+    @Test
+    void reopen_recoversUnconsumedRecords_fromCheckpoint() throws IOException {
+        try (SegmentedJournal journal = new SegmentedJournal(directory, 1024)) {
+            journal.append(bytes("order-1"));
+            long position = journal.append(bytes("order-2"));
+            journal.sync(position);
+            journal.commit(journal.read(0, 1).get(0).nextPosition());
+        }
+
+        try (SegmentedJournal journal = new SegmentedJournal(directory, 1024)) {
+            assertEquals(List.of("order-2"), payloads(journal.read(journal.checkpoint(), 10)));
+
+            long position = journal.append(bytes("order-3"));
+            journal.sync(position);
+            assertEquals(List.of("order-2", "order-3"), payloads(journal.read(journal.checkpoint(), 10)));
+        }
+    }
+
+    @Test
+    void sync_fromManyThreads_coversEveryAppend() throws Exception {
+        try (SegmentedJournal journal = new SegmentedJournal(directory, 4096)) {
+            ExecutorService pool = Executors.newFixedThreadPool(8);
+            for (int i = 0; i < 200; i++) {
+                String payload = "order-" + i;
+                pool.submit(() -> journal.sync(journal.append(bytes(payload))));
+            }
+            pool.shutdown();
+            assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+
+            assertEquals(200, journal.read(0, 1000).size());
+        }
+    }
+
+    @Test
+    void readAt_seesUnforcedRecords_butNothingFromDeletedSegments() throws IOException {
+        try (SegmentedJournal journal = new SegmentedJournal(directory, 64)) {
+            byte[] first = bytes("order-0-payload");
+            long firstStart = journal.append(first) - SegmentedJournal.recordSize(first.length);
+            long position = 0;
+            for (int i = 1; i < 10; i++)
+                position = journal.append(bytes("order-" + i + "-payload"));
+
+            assertEquals("order-0-payload", payloads(List.of(journal.readAt(firstStart))).get(0));
+
+            journal.sync(position);
+            journal.commit(position);
+
+            assertNull(journal.readAt(firstStart));
+            assertTrue(journal.read(firstStart, 10).isEmpty());
+        }
+    }
+
+    private long segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(p -> p.toString().endsWith(".seg")).count();
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.assignment.orderservice;
+
+import com.assignment.orderservice.ids.SnowflakeOrderIdGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SnowflakeOrderIdGeneratorTest {
+
+    @Test
+    void nextId_isCompactAndIncreasing() {
+        SnowflakeOrderIdGenerator generator = new SnowflakeOrderIdGenerator(7);
+
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++)
+            ids.add(generator.nextId());
+
+        assertThat(ids).allMatch(id -> id.length() == 13);
+        assertThat(ids).isSorted();
+        assertThat(new HashSet<>(ids)).hasSize(ids.size());
+    }
+
+    @Test
+    void nextId_concurrentCallers_getUniqueIds() throws Exception {
+        SnowflakeOrderIdGenerator generator = new SnowflakeOrderIdGenerator(7);
+        Set<String> ids = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++)
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 10_000; i++)
+                        ids.add(generator.nextId());
+                }));
+            for (Future<?> future : futures)
+                future.get();
+        } finally {
+            executor.shutdown();
+        }
+
+        assertThat(ids).hasSize(80_000);
+    }
+
+    @Test
+    void differentNodes_neverCollide() {
+        SnowflakeOrderIdGenerator first = new SnowflakeOrderIdGenerator(1);
+        SnowflakeOrderIdGenerator second = new SnowflakeOrderIdGenerator(2);
+
+        Set<String> ids = new HashSet<>();
+        for (int i = 0; i < 5_000; i++) {
+            ids.add(first.nextId());
+            ids.add(second.nextId());
+        }
+
+        assertThat(ids).hasSize(10_000);
+    }
+
+    @Test
+    void nodeIdOutOfRange_isRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new SnowflakeOrderIdGenerator(1024));
+    }
+
+    @Test
+    void nodeIdNotSet_failsStartup() {
+        assertThrows(IllegalStateException.class, () -> new SnowflakeOrderIdGenerator(-1));
+    }
+}
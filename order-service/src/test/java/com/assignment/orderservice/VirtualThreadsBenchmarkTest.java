@@ -0,0 +1,181 @@
+package com.assignment.orderservice;
+
+import ch.qos.logback.classic.Level;
+import com.assignment.commonmodel.kafka.BinaryEventSerializer;
+import com.assignment.commonmodel.model.Category;
+import com.assignment.commonmodel.model.InventoryStatus;
+import com.assignment.commonmodel.model.OrderEvent;
+import com.assignment.commonmodel.model.OrderItem;
+import com.assignment.orderservice.concurrency.ConcurrencyGuard;
+import com.assignment.orderservice.ids.SnowflakeOrderIdGenerator;
+import com.assignment.orderservice.services.implementation.KafkaPublisherImpl;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Requests/s and latency of the blocking order path on a pool of platform threads (Tomcat's default of 200) and on
+ * one virtual thread per request, with {@code benchmark.clients} requests in flight at any time, like wrk with that
+ * many connections. A request holds its thread through a Redis round trip ({@code benchmark.redisMillis}, simulated,
+ * behind the Redis guard) and {@link KafkaPublisherImpl#publishOrdersCreated} of one order, which waits for the
+ * ack of a local embedded broker. Each mode uses the guard limits of its profile in application.yml.
+ * Virtual threads need a Java 21 runtime; the module still compiles for 17.
+ *
+ * <pre>JAVA_HOME=&lt;jdk 21&gt; mvn -pl order-service -am test -Dtest=VirtualThreadsBenchmarkTest -Dsurefire.failIfNoSpecifiedTests=false -Dbenchmark=true</pre>
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class VirtualThreadsBenchmarkTest {
+
+    private static final String TOPIC = "orders-benchmark";
+    private static final int PLATFORM_THREADS = 200;
+    private static final int WARMUP_REQUESTS = 10_000;
+    private static final int REQUESTS = Integer.getInteger("benchmark.requests", 100_000);
+    private static final int CLIENTS = Integer.getInteger("benchmark.clients", 10_000);
+    private static final long REDIS_MILLIS = Long.getLong("benchmark.redisMillis", 2);
+
+    private static EmbeddedKafkaKraftBroker broker;
+    private static DefaultKafkaProducerFactory<String, Object> producerFactory;
+
+    @BeforeAll
+    static void startBroker() {
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+        broker = new EmbeddedKafkaKraftBroker(1, 3, TOPIC);
+        broker.afterPropertiesSet();
+        producerFactory = new DefaultKafkaProducerFactory<>(config());
+    }
+
+    @AfterAll
+    static void stopBroker() {
+        producerFactory.destroy();
+        broker.destroy();
+    }
+
+    @Test
+    void comparePlatformAndVirtualThreads() throws Exception {
+        List<OrderEvent> orders = orders(10_000);
+
+        run("platform", Executors.newFixedThreadPool(PLATFORM_THREADS), 256, 1024, orders);
+
+        ExecutorService virtualThreads = virtualThreadPerTaskExecutor();
+        assumeTrue(virtualThreads != null, "virtual threads need a Java 21 runtime");
+        run("virtual", virtualThreads, 128, 2048, orders);
+    }
+
+    private static void run(String mode, ExecutorService executor, int redisInFlight, int kafkaInFlight,
+                            List<OrderEvent> orders) throws InterruptedException {
+        ConcurrencyGuard redisGuard = new ConcurrencyGuard("redis", redisInFlight, Duration.ofSeconds(2));
+        KafkaPublisherImpl publisher = new KafkaPublisherImpl(new KafkaTemplate<>(producerFactory),
+                new ConcurrencyGuard("kafka", kafkaInFlight, Duration.ofSeconds(2)));
+        ReflectionTestUtils.setField(publisher, "orderTopic", TOPIC);
+
+        try {
+            requests(executor, redisGuard, publisher, orders, WARMUP_REQUESTS, new long[WARMUP_REQUESTS]);
+
+            long[] latencies = new long[REQUESTS];
+            long startedAt = System.nanoTime();
+            int failed = requests(executor, redisGuard, publisher, orders, REQUESTS, latencies);
+            double seconds = (System.nanoTime() - startedAt) / 1e9;
+
+            Arrays.sort(latencies);
+            System.out.printf("%-8s %d clients: %7.0f requests/s p50=%7.2fms p99=%7.2fms p99.9=%7.2fms failed=%d%n",
+                    mode, CLIENTS, REQUESTS / seconds, millis(latencies, 0.50), millis(latencies, 0.99),
+                    millis(latencies, 0.999), failed);
+            assertEquals(0, failed);
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        }
+    }
+
+    private static int requests(ExecutorService executor, ConcurrencyGuard redisGuard, KafkaPublisherImpl publisher,
+                                List<OrderEvent> orders, int requests, long[] latencies) throws InterruptedException {
+        Semaphore clients = new Semaphore(CLIENTS);
+        CountDownLatch done = new CountDownLatch(requests);
+        AtomicInteger failed = new AtomicInteger();
+        for (int i = 0; i < requests; i++) {
+            clients.acquire();
+            OrderEvent order = orders.get(i % orders.size());
+            int index = i;
+            long submittedAt = System.nanoTime();
+            executor.execute(() -> {
+                try {
+                    redisGuard.run(() -> sleep(REDIS_MILLIS));
+                    if (!publisher.publishOrdersCreated(List.of(order), Duration.ofSeconds(5)).isEmpty())
+                        failed.incrementAndGet();
+                } catch (RuntimeException e) {
+                    failed.incrementAndGet();
+                } finally {
+                    latencies[index] = System.nanoTime() - submittedAt;
+                    clients.release();
+                    done.countDown();
+                }
+            });
+        }
+        done.await(10, TimeUnit.MINUTES);
+        return failed.get();
+    }
+
+    private static ExecutorService virtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static Map<String, Object> config() {
+        Map<String, Object> config = new HashMap<>();
+        config.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString());
+        config.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        config.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, BinaryEventSerializer.class);
+        config.put(ProducerConfig.ACKS_CONFIG, "all");
+        config.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        return config;
+    }
+
+    private static List<OrderEvent> orders(int count) {
+        SnowflakeOrderIdGenerator ids = new SnowflakeOrderIdGenerator(1);
+        return IntStream.range(0, count)
+                .mapToObj(i -> new OrderEvent(ids.nextId(), "Customer " + i,
+                        List.of(new OrderItem(Category.STANDARD, "P1001", 2), new OrderItem(Category.PERISHABLE, "P1002", 1)),
+                        InventoryStatus.PENDING))
+                .toList();
+    }
+
+    private static double millis(long[] sorted, double percentile) {
+        return sorted[(int) Math.min(sorted.length - 1, Math.round(percentile * sorted.length))] / 1e6;
+    }
+}